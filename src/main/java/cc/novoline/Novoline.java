@@ -50,7 +50,8 @@ public final class Novoline {
     public PlayerManager playerManager;
     private final AsynchronousDataRetriever dataRetriever = new AsynchronousDataRetriever(null);
     public NotificationManager notificationManager;
-    public FontManager fontManager = SimpleFontManager.create();
+    // -Dnovoline.distanceFieldFonts=true draws every custom font from one atlas per typeface, sharp at any gui scale
+    public FontManager fontManager = SimpleFontManager.create(Boolean.getBoolean("novoline.distanceFieldFonts"));
 
     /* gui */
     public DiscordGUI discordGUI;
@@ -79,6 +80,7 @@ public final class Novoline {
 
     public void onDisable() {
         try {
+            getModuleManager().getConfigManager().flush();
             getModuleManager().getConfigManager().save("default");
         } catch (IOException e) {
             getLogger().warn("An I/O error occurred while " + e.getMessage() + "!", e);
@@ -38,6 +38,7 @@ public class NovoCommandHandler extends CommandHandler {
 		registerCommand(new KillsultsCommand(novoline));
 		registerCommand(new TeleportCommand(novoline));
 		registerCommand(new RenameCommand(novoline));
+		registerCommand(new ProfilerCommand(novoline));
 
 		registerCommand(new TestCommand(novoline));
 	}
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static cc.novoline.utils.messages.MessageFactory.text;
 import static cc.novoline.utils.messages.MessageFactory.usage;
@@ -167,9 +168,18 @@ public final class ConfigCommand extends NovoCommand {
             return;
         }
 
+        configManager.loadAsync(name, true).whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                Novoline.getInstance().getNotificationManager().pop("Loaded config " + name + "!", 2_000, SUCCESS);
+            } else {
+                handleLoadError(throwable);
+            }
+        });
+    }
+
+    private static void handleLoadError(@NonNull Throwable throwable) {
         try {
-            configManager.load(name, true);
-            Novoline.getInstance().getNotificationManager().pop("Loaded config " + name + "!", 2_000, SUCCESS);
+            throw throwable;
         } catch (FileNotFoundException e) {
             Novoline.getInstance().getNotificationManager().pop("Config not found!", 2_000, ERROR);
         } catch (IOException e) {
@@ -186,15 +196,27 @@ public final class ConfigCommand extends NovoCommand {
         }
     }
 
-    public static void saveConfig(@NonNull ConfigManager configManager, @NonNull String name) {
+    /**
+     * @return future completed on the main thread once the save finished, failed or was refused
+     */
+    public static CompletableFuture<Void> saveConfig(@NonNull ConfigManager configManager, @NonNull String name) {
         if (name.trim().isEmpty()) {
             Novoline.getInstance().getNotificationManager().pop("Name may not be blank!", 2_000, ERROR);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
+        return configManager.saveAsync(name).whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                Novoline.getInstance().getNotificationManager().pop("Saved config " + name + "!", 2_000, SUCCESS);
+            } else {
+                handleSaveError(throwable);
+            }
+        });
+    }
+
+    private static void handleSaveError(@NonNull Throwable throwable) {
         try {
-            configManager.save(name);
-            Novoline.getInstance().getNotificationManager().pop("Saved config " + name + "!", 2_000, SUCCESS);
+            throw throwable;
         } catch (ReadConfigException e) {
             Novoline.getLogger().warn("An I/O error occurred while reading config!", e);
             Novoline.getInstance().getNotificationManager().pop("Cannot read config!", 2_000, ERROR);
@@ -0,0 +1,163 @@
+package cc.novoline.commands.impl;
+
+import cc.novoline.Novoline;
+import cc.novoline.commands.NovoCommand;
+import cc.novoline.events.EventProfiler;
+import cc.novoline.utils.fonts.impl.TextLayoutCache;
+import cc.novoline.utils.messages.TextMessage;
+import net.minecraft.command.NumberInvalidException;
+import net.minecraft.network.NetworkManager;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static cc.novoline.utils.messages.MessageFactory.text;
+import static cc.novoline.utils.messages.MessageFactory.usage;
+import static net.minecraft.util.EnumChatFormatting.GRAY;
+import static net.minecraft.util.EnumChatFormatting.RED;
+
+public final class ProfilerCommand extends NovoCommand {
+
+    /* constructors */
+    public ProfilerCommand(@NonNull Novoline novoline) {
+        super(novoline, "profiler", "Profiles event listeners, text layouts and packet flushes", Arrays.asList("prof", "eventprofiler"));
+    }
+
+    private void sendHelp() {
+        sendHelp( // @off
+                "Profiler help:", ".profiler",
+                usage("on", "starts timing event listeners, shown next to the F3 profiler"),
+                usage("off", "stops timing event listeners"),
+                usage("reset", "clears the recorded timings"),
+                usage("top (count)", "shows the most expensive listeners"),
+                usage("fonts", "shows the text layout cache hit rate"),
+                usage("net", "shows how many packets are sent per flush"),
+                usage("net (budget ms|off)", "sets how long sent packets may wait to be flushed together")
+        ); // @on
+    }
+
+    /* methods */
+    @Override
+    public void process(String[] args) throws NumberInvalidException {
+        if (args.length < 1) {
+            sendHelp();
+            return;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "on": {
+                EventProfiler.reset();
+                EventProfiler.setEnabled(true);
+                notify("Event profiler enabled");
+                break;
+            }
+
+            case "off": {
+                EventProfiler.setEnabled(false);
+                notify("Event profiler disabled");
+                break;
+            }
+
+            case "reset": {
+                EventProfiler.reset();
+                notify("Event profiler was reset");
+                break;
+            }
+
+            case "top": {
+                top(args.length > 1 ? getInt(args[1]) : 10);
+                break;
+            }
+
+            case "fonts": {
+                fonts();
+                break;
+            }
+
+            case "net": {
+                if (args.length > 1) {
+                    flushBudget(args[1]);
+                } else {
+                    net();
+                }
+
+                break;
+            }
+
+            default:
+                sendHelp();
+        }
+    }
+
+    private void top(int count) {
+        final List<EventProfiler.Entry> entries = EventProfiler.getEntries();
+        final TextMessage text = text("Event listeners:");
+
+        if (entries.isEmpty()) {
+            text.append(text(" (empty)", RED));
+        }
+
+        send(text, true);
+
+        for (EventProfiler.Entry entry : entries.subList(0, Math.min(count, entries.size()))) {
+            send(text(" - ").append(entry.getListenerName()).append(String.format(" (%s) %d calls, %.2f ms total, %.1f \u00b5s max",
+                    entry.getEventName(), entry.getCalls(), entry.getTotalNanos() / 1_000_000.0D,
+                    entry.getMaxNanos() / 1_000.0D), GRAY));
+        }
+    }
+
+    private void fonts() {
+        final long hits = TextLayoutCache.getHits(), // @off
+                misses = TextLayoutCache.getMisses(); // @on
+        final double hitRate = hits + misses == 0 ? 0.0D : hits * 100.0D / (hits + misses);
+
+        send(text("Text layout cache:"), true);
+        send(text(" - ").append(String.format("%.1f%% hit rate (%d hits, %d misses)", hitRate, hits, misses), GRAY));
+        send(text(" - ").append(String.format("%d layouts, %d KB", TextLayoutCache.getSize(),
+                TextLayoutCache.getBytes() / 1024), GRAY));
+        TextLayoutCache.resetCounters();
+    }
+
+    private void net() {
+        final long flushes = NetworkManager.getFlushCount(), // @off
+                packets = NetworkManager.getFlushedPacketCount(); // @on
+
+        send(text("Outbound flushes:"), true);
+        send(text(" - ").append(NetworkManager.coalesceFlushes
+                ? String.format("coalesced, %.2f ms budget", NetworkManager.flushBudgetNanos / 1_000_000.0D)
+                : "flushed per packet", GRAY));
+        send(text(" - ").append(String.format("%d packets in %d flushes, %.2f per flush, %d max", packets, flushes,
+                flushes == 0 ? 0.0D : packets / (double) flushes, NetworkManager.getMaxPacketsPerFlush()), GRAY));
+        NetworkManager.resetFlushCounters();
+    }
+
+    private void flushBudget(String arg) throws NumberInvalidException {
+        if (arg.equalsIgnoreCase("off")) {
+            NetworkManager.coalesceFlushes = false;
+            notify("Packets are flushed one by one");
+            return;
+        }
+
+        final double budget = getDouble(arg);
+
+        if (budget <= 0.0D || budget > 50.0D) {
+            notifyError("Budget must be between 0 and 50 ms");
+            return;
+        }
+
+        NetworkManager.flushBudgetNanos = (long) (budget * 1_000_000.0D);
+        NetworkManager.coalesceFlushes = true;
+        notify("Packets are flushed together within " + budget + " ms");
+    }
+
+    @Override
+    public List<String> completeTabOptions(String[] args) {
+        if (args.length == 1) {
+            return completeTab(Arrays.asList("on", "off", "reset", "top", "fonts", "net"), args[0], true);
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,26 @@
+package cc.novoline.events;
+
+import cc.novoline.events.events.Event;
+
+/**
+ * Direct call site for a single method marked with the EventTarget annotation.
+ * An implementation is spun up for every registered method so that dispatching an
+ * Event is a plain interface call instead of a reflective Method#invoke.
+ * <p>
+ * This interface has to stay public because the generated implementations are defined
+ * next to the listener classes, which live in other packages.
+ *
+ * @see cc.novoline.events.EventManager
+ */
+@FunctionalInterface
+public interface EventInvoker {
+
+    /**
+     * Invokes the targeted method on the given source object.
+     *
+     * @param source The object that declares the targeted method.
+     * @param event  The Event to pass to the targeted method.
+     */
+    void invoke(Object source, Event event);
+
+}
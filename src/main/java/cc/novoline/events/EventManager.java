@@ -2,15 +2,30 @@ package cc.novoline.events;
 
 import cc.novoline.events.events.Event;
 import cc.novoline.events.events.StoppableEvent;
-import cc.novoline.events.types.Priority;
-
-import java.lang.reflect.InvocationTargetException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * @author DarkMagician6
@@ -18,10 +33,65 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public final class EventManager {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Shared empty dispatch chain, used for events nobody is listening to.
+     */
+    private static final MethodData[] EMPTY = new MethodData[0];
+
+    /**
+     * Orders MethodData on their priority. Arrays#sort is stable, so methods with the
+     * same priority keep the order in which they were registered.
+     */
+    private static final Comparator<MethodData> PRIORITY_ORDER = Comparator.comparingInt(MethodData::getPriority);
+
+    /**
+     * Guards writes to the registry. Readers never take this lock.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * The currently published registry. Every write builds a new Registry and swaps it in,
+     * so a call that is already dispatching keeps working on the snapshot it started with.
+     */
+    private static volatile Registry registry = new Registry(Collections.emptyMap());
+
+    /**
+     * Lookup used to spin up the EventInvoker of every registered method.
+     * Tries to grab the trusted lookup so that private listener methods can be bound as well.
+     */
+    private static final MethodHandles.Lookup LOOKUP;
+
+    /**
+     * Erased signature of EventInvoker#invoke.
+     */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Event.class);
+
+    /**
+     * EventInvoker of every method registered so far. Modules register again on every toggle,
+     * so the generated class is kept instead of spinning up a new one each time.
+     */
+    private static final Map<Method, EventInvoker> INVOKERS = new ConcurrentHashMap<>();
+
     /**
-     * HashMap containing all the registered MethodData sorted on the event parameters of the methods.
+     * Whether a failed LambdaMetafactory binding was logged already.
      */
-    private static final Map<Class<? extends Event>, List<MethodData>> REGISTRY_MAP = new HashMap<>();
+    private static volatile boolean fallbackLogged;
+
+    static {
+        MethodHandles.Lookup lookupObject;
+
+        try {
+            final Field lookupImplField = MethodHandles.Lookup.class.getDeclaredField("IMPL_LOOKUP");
+            lookupImplField.setAccessible(true);
+            lookupObject = (MethodHandles.Lookup) lookupImplField.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            lookupObject = MethodHandles.lookup();
+        }
+
+        LOOKUP = lookupObject;
+    }
 
     /**
      * All methods in this class are static so there would be no reason to create an object of the EventManager class.
@@ -35,12 +105,16 @@ public final class EventManager {
      * @param object Object that you want to register.
      */
     public static void register(Object object) {
+        final List<MethodData> dataList = new ArrayList<>();
+
         for (final Method method : object.getClass().getDeclaredMethods()) {
             if (isMethodBad(method)) {
                 continue;
             }
-            register(method, object);
+            dataList.add(createData(method, object));
         }
+
+        register(dataList);
     }
 
     /**
@@ -51,12 +125,16 @@ public final class EventManager {
      * @param eventClass class for the marked method we are looking for.
      */
     public static void register(Object object, Class<? extends Event> eventClass) {
+        final List<MethodData> dataList = new ArrayList<>();
+
         for (final Method method : object.getClass().getDeclaredMethods()) {
             if (isMethodBad(method, eventClass)) {
                 continue;
             }
-            register(method, object);
+            dataList.add(createData(method, object));
         }
+
+        register(dataList);
     }
 
     /**
@@ -65,11 +143,20 @@ public final class EventManager {
      * @param object Object of which you want to unregister all Methods.
      */
     public static void unregister(Object object) {
-        for (final List<MethodData> dataList : REGISTRY_MAP.values()) {
-            dataList.removeIf(data -> data.getSource().equals(object));
-        }
+        synchronized (LOCK) {
+            final Map<Class<? extends Event>, MethodData[]> entries = registry.entries;
+            final Map<Class<? extends Event>, MethodData[]> copy = new HashMap<>(entries.size());
+            boolean changed = false;
 
-        cleanMap(true);
+            for (final Map.Entry<Class<? extends Event>, MethodData[]> entry : entries.entrySet()) {
+                final MethodData[] remaining = removeIf(entry.getValue(), data -> data.getSource().equals(object));
+
+                if (remaining.length != entry.getValue().length) changed = true;
+                if (remaining.length != 0) copy.put(entry.getKey(), remaining);
+            }
+
+            if (changed) registry = new Registry(copy);
+        }
     }
 
     /**
@@ -79,50 +166,111 @@ public final class EventManager {
      * @param eventClass class for the method to remove.
      */
     public static void unregister(Object object, Class<? extends Event> eventClass) {
-        if (REGISTRY_MAP.containsKey(eventClass)) {
-            REGISTRY_MAP.get(eventClass).removeIf(data -> data.getSource().equals(object));
-            cleanMap(true);
+        synchronized (LOCK) {
+            final MethodData[] dataArray = registry.entries.get(eventClass);
+
+            if (dataArray == null) return;
+
+            final MethodData[] remaining = removeIf(dataArray, data -> data.getSource().equals(object));
+
+            if (remaining.length != dataArray.length) {
+                final Map<Class<? extends Event>, MethodData[]> copy = new HashMap<>(registry.entries);
+
+                if (remaining.length == 0) {
+                    copy.remove(eventClass);
+                } else {
+                    copy.put(eventClass, remaining);
+                }
+
+                registry = new Registry(copy);
+            }
         }
     }
 
     /**
-     * Registers a new MethodData to the HashMap.
-     * If the HashMap already contains the key of the Method's first argument it will add
-     * a new MethodData to key's matching list and sorts it based on Priority.
+     * Creates a new MethodData for the given Method.
      *
-     * @param method Method to register to the HashMap.
+     * @param method Method marked with the EventTarget annotation.
      * @param object Source object of the method.
+     * @return MethodData with a ready to use EventInvoker.
+     */
+    private static MethodData createData(Method method, Object object) {
+        //Set's the method to accessible so that we can also invoke it if it's protected or private.
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+
+        return new MethodData(object, method, INVOKERS.computeIfAbsent(method, EventManager::createInvoker),
+                method.getAnnotation(EventTarget.class).value());
+    }
+
+    /**
+     * Adds the given MethodData to the registry and publishes the new registry in a single swap.
+     * Every affected entry is re-sorted based on Priority, MethodData that is already registered is skipped.
+     *
+     * @param dataList MethodData to register.
      * @see cc.novoline.events.types.Priority
-     * <p>
-     * Otherwise it will put a new entry in the HashMap with a the first argument's class
-     * and a new CopyOnWriteArrayList containing the new MethodData.
      */
     @SuppressWarnings("unchecked")
-    private static void register(Method method, Object object) {
-        Class<? extends Event> indexClass = (Class<? extends Event>) method.getParameterTypes()[0];
-        //New MethodData from the Method we are registering.
-        final MethodData data = new MethodData(object, method, method.getAnnotation(EventTarget.class).value());
+    private static void register(List<MethodData> dataList) {
+        if (dataList.isEmpty()) return;
 
-        //Set's the method to accessible so that we can also invoke it if it's protected or private.
-        if (!data.getTarget().isAccessible()) {
-            data.getTarget().setAccessible(true);
-        }
+        synchronized (LOCK) {
+            final Map<Class<? extends Event>, MethodData[]> copy = new HashMap<>(registry.entries);
+            boolean changed = false;
+
+            for (final MethodData data : dataList) {
+                final Class<? extends Event> indexClass = (Class<? extends Event>) data.getTarget().getParameterTypes()[0];
+                final MethodData[] dataArray = copy.getOrDefault(indexClass, EMPTY);
+
+                if (Arrays.asList(dataArray).contains(data)) continue;
+
+                final MethodData[] newArray = Arrays.copyOf(dataArray, dataArray.length + 1);
+                newArray[dataArray.length] = data;
+                Arrays.sort(newArray, PRIORITY_ORDER);
 
-        if (REGISTRY_MAP.containsKey(indexClass)) {
-            if (!REGISTRY_MAP.get(indexClass).contains(data)) {
-                REGISTRY_MAP.get(indexClass).add(data);
-                sortListValue(indexClass);
+                copy.put(indexClass, newArray);
+                changed = true;
             }
-        } else {
-            REGISTRY_MAP.put(indexClass, new CopyOnWriteArrayList<MethodData>() {
-                //Eclipse was bitching about a serialVersionUID.
-                private static final long serialVersionUID = 666L;
 
-                {
-                    add(data);
+            if (changed) registry = new Registry(copy);
+        }
+    }
+
+    /**
+     * Creates the EventInvoker for the given Method.
+     * Instance methods get a generated implementation through the LambdaMetafactory, which makes the
+     * dispatch a direct, monomorphic call into the listener. If that fails (static methods, or a VM
+     * that refuses the lookup) the invoker falls back to reflection. The first such failure is logged.
+     *
+     * @param method Method to create the invoker for.
+     * @return EventInvoker which calls the given Method.
+     */
+    private static EventInvoker createInvoker(Method method) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            try {
+                final Class<?> owner = method.getDeclaringClass();
+                final MethodHandles.Lookup lookup = LOOKUP.in(owner);
+                final MethodHandle handle = lookup.unreflect(method);
+                final CallSite site = LambdaMetafactory.metafactory(lookup, "invoke",
+                        MethodType.methodType(EventInvoker.class), INVOKER_TYPE, handle,
+                        MethodType.methodType(void.class, owner, method.getParameterTypes()[0]));
+
+                return (EventInvoker) site.getTarget().invoke();
+            } catch (Throwable t) {
+                if (!fallbackLogged) {
+                    fallbackLogged = true;
+                    LOGGER.warn("Couldn't bind " + method + ", listeners are called through reflection", t);
                 }
-            });
+            }
         }
+
+        return (source, event) -> {
+            try {
+                method.invoke(source, event);
+            } catch (ReflectiveOperationException | IllegalArgumentException ignored) {
+            }
+        };
     }
 
     /**
@@ -131,52 +279,46 @@ public final class EventManager {
      * @param indexClass They index key in the map of which the entry should be removed.
      */
     public static void removeEntry(Class<? extends Event> indexClass) {
-        final Iterator<Map.Entry<Class<? extends Event>, List<MethodData>>> mapIterator = REGISTRY_MAP.entrySet()
-                .iterator();
-
-        while (mapIterator.hasNext()) {
-            if (mapIterator.next().getKey().equals(indexClass)) {
-                mapIterator.remove();
-                break;
+        synchronized (LOCK) {
+            if (registry.entries.containsKey(indexClass)) {
+                final Map<Class<? extends Event>, MethodData[]> copy = new HashMap<>(registry.entries);
+                copy.remove(indexClass);
+                registry = new Registry(copy);
             }
         }
     }
 
     /**
      * Cleans up the map entries.
-     * Uses an iterator to make sure that the entry is completely removed.
+     * Entries are never published with an empty array, so only clearing the whole map has any effect.
      *
      * @param onlyEmptyEntries If true only remove the entries with an empty list, otherwise remove all the entries.
      */
     public static void cleanMap(boolean onlyEmptyEntries) {
-        final Iterator<Map.Entry<Class<? extends Event>, List<MethodData>>> mapIterator = REGISTRY_MAP.entrySet()
-                .iterator();
+        if (onlyEmptyEntries) return;
 
-        while (mapIterator.hasNext()) {
-            if (!onlyEmptyEntries || mapIterator.next().getValue().isEmpty()) {
-                mapIterator.remove();
-            }
+        synchronized (LOCK) {
+            registry = new Registry(Collections.emptyMap());
         }
     }
 
     /**
-     * Sorts the List that matches the corresponding Event class based on priority value.
+     * Returns a copy of the given array without the MethodData matching the filter.
      *
-     * @param indexClass The Event class index in the HashMap of the List to sort.
+     * @param dataArray Array to filter.
+     * @param filter    Filter for the MethodData to remove.
+     * @return The filtered array, or the given array if nothing matched.
      */
-    private static void sortListValue(Class<? extends Event> indexClass) {
-        final List<MethodData> sortedList = new CopyOnWriteArrayList<>();
+    private static MethodData[] removeIf(MethodData[] dataArray, Predicate<MethodData> filter) {
+        final List<MethodData> remaining = new ArrayList<>(dataArray.length);
 
-        for (final byte priority : Priority.VALUE_ARRAY) {
-            for (final MethodData data : REGISTRY_MAP.get(indexClass)) {
-                if (data.getPriority() == priority) {
-                    sortedList.add(data);
-                }
+        for (final MethodData data : dataArray) {
+            if (!filter.test(data)) {
+                remaining.add(data);
             }
         }
 
-        //Overwriting the existing entry.
-        REGISTRY_MAP.put(indexClass, sortedList);
+        return remaining.size() == dataArray.length ? dataArray : remaining.toArray(EMPTY);
     }
 
     /**
@@ -206,32 +348,42 @@ public final class EventManager {
 
     /**
      * Call's an event and invokes the right methods that are listening to the event call.
-     * First get's the matching list from the registry map based on the class of the event.
-     * Then it checks if the list is not null. After that it will check if the event is an instance of
+     * First get's the dispatch chain of the event's class from the current registry, which holds the
+     * methods listening to the class itself and to all of its super types (e.g. Typed or CancellableEvent),
+     * sorted on priority. After that it will check if the event is an instance of
      * EventStoppable and if so it will add an extra check when looping trough the data.
      * If the Event was an instance of EventStoppable it will check every loop if the EventStoppable is stopped, and if
      * it is it will break the loop, thus stopping the call.
-     * For every MethodData in the list it will invoke the Data's method with the Event as the argument.
+     * For every MethodData in the chain it will invoke the Data's method with the Event as the argument,
+     * timing the call if the EventProfiler is enabled.
      * After that is all done it will return the Event.
      *
      * @param event Event to dispatch.
      * @return Event in the state after dispatching it.
      */
     public static Event call(final Event event) {
-        final List<MethodData> dataList = REGISTRY_MAP.get(event.getClass());
+        final MethodData[] chain = registry.chain(event.getClass());
+
+        if (chain.length == 0) return event;
 
-        if (dataList == null) return event;
+        final boolean profiling = EventProfiler.isEnabled();
 
         if (event instanceof StoppableEvent) {
             final StoppableEvent stoppable = (StoppableEvent) event;
 
-            for (final MethodData data : dataList) {
-                invoke(data, event);
+            for (final MethodData data : chain) {
+                if (profiling) {
+                    invokeProfiled(data, event);
+                } else {
+                    invoke(data, event);
+                }
 
                 if (stoppable.isStopped()) break;
             }
+        } else if (profiling) {
+            for (final MethodData data : chain) invokeProfiled(data, event);
         } else {
-            for (final MethodData data : dataList) invoke(data, event);
+            for (final MethodData data : chain) invoke(data, event);
         }
 
         return event;
@@ -245,11 +397,102 @@ public final class EventManager {
      */
     private static void invoke(MethodData data, Event argument) {
         try {
-            data.getTarget().invoke(data.getSource(), argument);
-        } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException ignored) {
+            data.getInvoker().invoke(data.getSource(), argument);
+        } catch (Throwable ignored) {
         }
     }
 
+    /**
+     * Invokes a MethodData and records the time it took in the EventProfiler.
+     *
+     * @param data     The data of which the targeted Method should be invoked.
+     * @param argument The called Event which should be used as an argument for the targeted Method.
+     */
+    private static void invokeProfiled(MethodData data, Event argument) {
+        final long start = System.nanoTime();
+        invoke(data, argument);
+        data.getProfilerEntry().record(System.nanoTime() - start);
+    }
+
+    /**
+     * Immutable snapshot of all registered MethodData, indexed on the event parameter of the methods.
+     * Dispatch chains are resolved lazily per called event class and cached for the lifetime of the snapshot.
+     */
+    private static final class Registry {
+
+        private final Map<Class<? extends Event>, MethodData[]> entries;
+
+        private final Map<Class<?>, MethodData[]> chains = new ConcurrentHashMap<>();
+
+        /**
+         * @param entries The registered MethodData, sorted on priority per event class. Must not be modified afterwards.
+         */
+        private Registry(Map<Class<? extends Event>, MethodData[]> entries) {
+            this.entries = entries;
+        }
+
+        /**
+         * Gets the dispatch chain for the given event class.
+         *
+         * @param eventClass Class of the called event.
+         * @return All MethodData that should receive the event, sorted on priority.
+         */
+        private MethodData[] chain(Class<?> eventClass) {
+            final MethodData[] chain = this.chains.get(eventClass);
+            return chain != null ? chain : this.resolve(eventClass);
+        }
+
+        /**
+         * Collects the MethodData registered on the given class and on every super type of it.
+         *
+         * @param eventClass Class of the called event.
+         * @return The resolved dispatch chain.
+         */
+        private MethodData[] resolve(Class<?> eventClass) {
+            if (this.entries.isEmpty()) return EMPTY;
+
+            final List<MethodData> dataList = new ArrayList<>();
+
+            for (final Class<?> type : hierarchy(eventClass)) {
+                final MethodData[] dataArray = this.entries.get(type);
+
+                if (dataArray != null) {
+                    dataList.addAll(Arrays.asList(dataArray));
+                }
+            }
+
+            final MethodData[] chain = dataList.isEmpty() ? EMPTY : dataList.toArray(EMPTY);
+            Arrays.sort(chain, PRIORITY_ORDER);
+
+            this.chains.put(eventClass, chain);
+            return chain;
+        }
+
+        /**
+         * Walks the type hierarchy of the given class, most specific type first.
+         *
+         * @param eventClass Class to walk the hierarchy of.
+         * @return The class itself followed by all of its super classes and interfaces.
+         */
+        private static Set<Class<?>> hierarchy(Class<?> eventClass) {
+            final Set<Class<?>> types = new LinkedHashSet<>();
+            final Deque<Class<?>> queue = new ArrayDeque<>();
+            queue.add(eventClass);
+
+            while (!queue.isEmpty()) {
+                final Class<?> type = queue.poll();
+
+                if (type == Object.class || !types.add(type)) continue;
+
+                if (type.getSuperclass() != null) queue.add(type.getSuperclass());
+                Collections.addAll(queue, type.getInterfaces());
+            }
+
+            return types;
+        }
+
+    }
+
     /**
      * @author DarkMagician6
      * @since January 2, 2014
@@ -260,20 +503,26 @@ public final class EventManager {
 
         private final Method target;
 
+        private final EventInvoker invoker;
+
         private final byte priority;
 
+        private EventProfiler.Entry profilerEntry;
+
         /**
          * Sets the values of the data.
          *
          * @param source   The source Object of the data. Used by the VM to
          *                 determine to which object it should send the call to.
          * @param target   The targeted Method to which the Event should be send to.
+         * @param invoker  The EventInvoker which calls the targeted Method.
          * @param priority The priority of this Method. Used by the registry to sort
          *                 the data on.
          */
-        public MethodData(Object source, Method target, byte priority) {
+        public MethodData(Object source, Method target, EventInvoker invoker, byte priority) {
             this.source = source;
             this.target = target;
+            this.invoker = invoker;
             this.priority = priority;
         }
 
@@ -295,6 +544,15 @@ public final class EventManager {
             return this.target;
         }
 
+        /**
+         * Gets the EventInvoker of the targeted Method.
+         *
+         * @return The EventInvoker used to dispatch Event calls to the targeted Method.
+         */
+        public EventInvoker getInvoker() {
+            return this.invoker;
+        }
+
         /**
          * Gets the priority value of the targeted Method.
          *
@@ -304,6 +562,39 @@ public final class EventManager {
             return this.priority;
         }
 
+        /**
+         * Gets the EventProfiler entry of the targeted Method, resolving it on first use.
+         *
+         * @return The entry recording the calls of the targeted Method.
+         */
+        public EventProfiler.Entry getProfilerEntry() {
+            EventProfiler.Entry entry = this.profilerEntry;
+
+            if (entry == null) {
+                this.profilerEntry = entry = EventProfiler.entry(this.target);
+            }
+
+            return entry;
+        }
+
+        /**
+         * Two MethodData are equal when they target the same Method on the same source Object,
+         * which keeps an Object from being registered twice.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MethodData)) return false;
+
+            final MethodData data = (MethodData) o;
+            return this.source == data.source && this.target.equals(data.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.source) + this.target.hashCode();
+        }
+
     }
 
 }
@@ -0,0 +1,129 @@
+package cc.novoline.events;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional per-listener timing for the EventManager.
+ * While enabled, every dispatch to a method marked with the EventTarget annotation is timed and
+ * recorded per listener method (which also pins the event class, being its only parameter).
+ * While disabled the EventManager does not take any timestamps and does not touch this class' state.
+ *
+ * @see cc.novoline.events.EventManager
+ */
+public final class EventProfiler {
+
+    private static final Map<Method, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    /**
+     * All methods in this class are static so there would be no reason to create an object of the EventProfiler class.
+     */
+    private EventProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        EventProfiler.enabled = enabled;
+    }
+
+    /**
+     * Resets the counters of every listener. Entries stay in place so that listeners
+     * which already resolved their entry keep recording into it.
+     */
+    public static void reset() {
+        for (final Entry entry : ENTRIES.values()) {
+            entry.reset();
+        }
+    }
+
+    /**
+     * Gets the entries that recorded at least one call, the most expensive listener first.
+     *
+     * @return Snapshot list of the recorded entries.
+     */
+    public static List<Entry> getEntries() {
+        final List<Entry> entries = new ArrayList<>(ENTRIES.size());
+
+        for (final Entry entry : ENTRIES.values()) {
+            if (entry.getCalls() != 0) {
+                entries.add(entry);
+            }
+        }
+
+        entries.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+        return entries;
+    }
+
+    /**
+     * Gets the entry of the given listener method, creating it on first use.
+     *
+     * @param method The listener method.
+     * @return The entry recording the calls of the method.
+     */
+    static Entry entry(Method method) {
+        return ENTRIES.computeIfAbsent(method, Entry::new);
+    }
+
+    /**
+     * Lock-free call counters of a single listener method.
+     */
+    public static final class Entry {
+
+        private final Method method;
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private Entry(Method method) {
+            this.method = method;
+        }
+
+        void record(long nanos) {
+            this.calls.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+        }
+
+        private void reset() {
+            this.calls.reset();
+            this.totalNanos.reset();
+            this.maxNanos.reset();
+        }
+
+        public String getEventName() {
+            return this.method.getParameterTypes()[0].getSimpleName();
+        }
+
+        public String getListenerName() {
+            return this.method.getDeclaringClass().getSimpleName() + "#" + this.method.getName();
+        }
+
+        public long getCalls() {
+            return this.calls.sum();
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos.get();
+        }
+
+    }
+
+}
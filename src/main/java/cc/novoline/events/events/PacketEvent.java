@@ -5,22 +5,63 @@ import net.minecraft.network.Packet;
 
 public class PacketEvent extends CancellableEvent {
 
-    private final State state;
-    private final Packet<?> packet;
+    /**
+     * One reusable event per thread, packets are fired from both the netty and the game thread.
+     */
+    private static final ThreadLocal<PacketEvent> POOLED = ThreadLocal.withInitial(() -> {
+        final PacketEvent event = new PacketEvent(null, null);
+        event.released = true;
+        return event;
+    });
+
+    private State state;
+    private Packet<?> packet;
+    private boolean released;
 
     public PacketEvent(Packet<?> packet, State state) {
         this.state = state;
         this.packet = packet;
     }
 
+    /**
+     * Gets the pooled instance of the current thread, reset to the given values. Falls back to a new
+     * instance if the pooled one is still being dispatched, e.g. when a listener sends a packet itself.
+     * Must be handed back through {@link #release()} once the call is done.
+     */
+    public static PacketEvent acquire(Packet<?> packet, State state) {
+        final PacketEvent event = POOLED.get();
+
+        if (!event.released) return new PacketEvent(packet, state);
+
+        event.packet = packet;
+        event.state = state;
+        event.setCancelled(false);
+        event.released = false;
+        return event;
+    }
+
+    /**
+     * Ends the dispatch of this event. Any further access throws, so listeners can't hold on to a reused event.
+     */
+    public void release() {
+        this.released = true;
+        this.packet = null;
+    }
+
     public State getState() {
+        checkReleased();
         return state;
     }
 
     public Packet<?> getPacket() {
+        checkReleased();
         return packet;
     }
 
+    private void checkReleased() {
+        if (released) throw new IllegalStateException("PacketEvent used after its dispatch has finished");
+    }
+
     public enum State {
         INCOMING,
         OUTGOING
@@ -4,20 +4,58 @@ import net.minecraft.client.gui.ScaledResolution;
 
 public class Render2DEvent implements Event {
 
-    private final ScaledResolution resolution;
-    private final float partialTicks;
+    /**
+     * Reused every frame. Only ever touched from the render thread.
+     */
+    private static final Render2DEvent POOLED = new Render2DEvent(null, 0.0F);
+
+    private ScaledResolution resolution;
+    private float partialTicks;
+    private boolean released;
+
+    static {
+        POOLED.released = true;
+    }
 
     public Render2DEvent(ScaledResolution resolution, float partialTicks) {
         this.resolution = resolution;
         this.partialTicks = partialTicks;
     }
 
+    /**
+     * Gets the pooled instance, reset to the given values. Falls back to a new instance
+     * if the pooled one is still being dispatched (nested call).
+     * Must be handed back through {@link #release()} once the call is done.
+     */
+    public static Render2DEvent acquire(ScaledResolution resolution, float partialTicks) {
+        if (!POOLED.released) return new Render2DEvent(resolution, partialTicks);
+
+        POOLED.resolution = resolution;
+        POOLED.partialTicks = partialTicks;
+        POOLED.released = false;
+        return POOLED;
+    }
+
+    /**
+     * Ends the dispatch of this event. Any further access throws, so listeners can't hold on to a reused event.
+     */
+    public void release() {
+        this.released = true;
+        this.resolution = null;
+    }
+
     public float getPartialTicks() {
+        checkReleased();
         return this.partialTicks;
     }
 
     public ScaledResolution getResolution() {
+        checkReleased();
         return this.resolution;
     }
 
+    private void checkReleased() {
+        if (this.released) throw new IllegalStateException("Render2DEvent used after its dispatch has finished");
+    }
+
 }
@@ -7,14 +7,49 @@ package cc.novoline.events.events;
 
 public class Render3DEvent implements Event {
 
-    private final float partialTicks;
+    /**
+     * Reused every frame. Only ever touched from the render thread.
+     */
+    private static final Render3DEvent POOLED = new Render3DEvent(0.0F);
+
+    private float partialTicks;
+    private boolean released;
+
+    static {
+        POOLED.released = true;
+    }
 
     public Render3DEvent(float partialTicks) {
         this.partialTicks = partialTicks;
     }
 
+    /**
+     * Gets the pooled instance, reset to the given values. Falls back to a new instance
+     * if the pooled one is still being dispatched (nested call).
+     * Must be handed back through {@link #release()} once the call is done.
+     */
+    public static Render3DEvent acquire(float partialTicks) {
+        if (!POOLED.released) return new Render3DEvent(partialTicks);
+
+        POOLED.partialTicks = partialTicks;
+        POOLED.released = false;
+        return POOLED;
+    }
+
+    /**
+     * Ends the dispatch of this event. Any further access throws, so listeners can't hold on to a reused event.
+     */
+    public void release() {
+        this.released = true;
+    }
+
     public float getPartialTicks() {
+        checkReleased();
         return this.partialTicks;
     }
 
+    private void checkReleased() {
+        if (this.released) throw new IllegalStateException("Render3DEvent used after its dispatch has finished");
+    }
+
 }
@@ -175,8 +175,8 @@ public final class ConfigMenu {
                         ConfigCommand.deleteConfig(moduleManager.getConfigManager(), config.getName());
                         discordGUI.initConfigs();
                     } else if (isSave(mouseX, mouseY)) {
-                        ConfigCommand.saveConfig(moduleManager.getConfigManager(), config.getName());
-                        discordGUI.initConfigs();
+                        ConfigCommand.saveConfig(moduleManager.getConfigManager(), config.getName())
+                                .whenComplete((ignored, throwable) -> discordGUI.initConfigs());
                         b = true;
                     }
                 }
@@ -189,8 +189,8 @@ public final class ConfigMenu {
                     break a;
                 }
 
-                ConfigCommand.saveConfig(moduleManager.getConfigManager(), message);
-                discordGUI.initConfigs();
+                ConfigCommand.saveConfig(moduleManager.getConfigManager(), message)
+                        .whenComplete((ignored, throwable) -> discordGUI.initConfigs());
             } else if (isRefresh(mouseX, mouseY)) {
                 discordGUI.initConfigs();
             }
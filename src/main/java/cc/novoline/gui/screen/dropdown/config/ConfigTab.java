@@ -64,8 +64,8 @@ public class ConfigTab extends Tab {
 		}));
 
 		configs.add(new ConfigButton("Save", this, (ignored) -> {
-			ConfigCommand.saveConfig(Novoline.getInstance().getModuleManager().getConfigManager(),getSelectedConfig() != null ? getSelectedConfig().getName() : newConfigName.getValue());
-			refreshConfigs();
+			ConfigCommand.saveConfig(Novoline.getInstance().getModuleManager().getConfigManager(),getSelectedConfig() != null ? getSelectedConfig().getName() : newConfigName.getValue())
+					.whenComplete((result, throwable) -> refreshConfigs());
 		}));
 
 		configs.add(new ConfigButton("Delete", this, (configName) -> {
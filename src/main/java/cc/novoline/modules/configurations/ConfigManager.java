@@ -14,10 +14,13 @@ import cc.novoline.modules.serializers.ModuleMapSerializer;
 import cc.novoline.modules.serializers.PropertySerializer;
 import cc.novoline.utils.java.Checks;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.Minecraft;
 import net.skidunion.security.annotations.Protect;
 import ninja.leaping.configurate.ConfigurationNode;
 import ninja.leaping.configurate.ConfigurationOptions;
+import ninja.leaping.configurate.SimpleConfigurationNode;
 import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
 import ninja.leaping.configurate.objectmapping.ObjectMappingException;
 import ninja.leaping.configurate.objectmapping.serialize.TypeSerializerCollection;
@@ -32,8 +35,15 @@ import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,8 +54,13 @@ import static java.nio.file.Files.*;
 public final class ConfigManager {
 
     /* fields */
+    private static final long SAVE_DELAY = 500L;
+    private static final ScheduledExecutorService IO_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Config I/O").setDaemon(true).build());
+
     private final ModuleManager moduleManager;
     private final int configVersion;
+    private final Map<Path, PendingSave> pendingSaves = new HashMap<>();
 
     /* constructors */
     public ConfigManager(@NotNull ModuleManager moduleManager, int configVersion) {
@@ -60,20 +75,73 @@ public final class ConfigManager {
     }
 
     public void load(@NotNull Path path, boolean disable) throws IOException, ObjectMappingException {
+        // a save of this config that is still waiting for its delay has to land before reading it
+        try {
+            IO_EXECUTOR.submit(() -> writePending(path)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while writing pending config", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        apply(parse(path), disable);
+    }
+
+    /**
+     * Loads the config without stalling the calling thread: the file is read and parsed on the I/O thread,
+     * then mapped and applied to the modules on the main thread in one go.
+     *
+     * @return future completed on the main thread once the config is applied, or with the exception
+     * {@link #load(String, boolean)} would have thrown
+     */
+    @NotNull
+    public CompletableFuture<Void> loadAsync(@NotNull String name, boolean disable) {
+        final Path path = getConfigPath(name);
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        IO_EXECUTOR.execute(() -> {
+            final ConfigurationNode node;
+
+            try {
+                // a save of this config that is still waiting for its delay has to land before reading it
+                writePending(path);
+                node = parse(path);
+            } catch (Throwable t) {
+                Minecraft.getInstance().addScheduledTask(() -> future.completeExceptionally(t));
+                return;
+            }
+
+            Minecraft.getInstance().addScheduledTask(() -> {
+                try {
+                    apply(node, disable);
+                    future.complete(null);
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        });
+
+        return future;
+    }
+
+    @NotNull
+    private ConfigurationNode parse(@NotNull Path path) throws IOException {
         if (notExists(path)) {
             throw new FileNotFoundException("file doesn't exist");
         }
 
         final ConfigurationOptions options = defaultOptions();
         final HoconConfigurationLoader loader = HoconConfigurationLoader.builder().setDefaultOptions(options).setPath(path).build();
-        final ConfigurationNode node;
 
         try {
-            node = loader.load(options);
+            return loader.load(options);
         } catch (IOException e) {
             throw new ReadConfigException(e);
         }
+    }
 
+    private void apply(@NotNull ConfigurationNode node, boolean disable) throws ObjectMappingException {
         final ClientConfig value = node.getValue(TypeToken.of(ClientConfig.class));
 
         if (value == null) {
@@ -149,14 +217,161 @@ public final class ConfigManager {
     }
 
     public boolean save(@NotNull String name) throws ReadConfigException, IOException, ObjectMappingException {
-        boolean logged = false;
         final Path path = getConfigPath(name);
+        final ConfigurationNode snapshot = snapshot(name);
+        final PendingSave pending;
+
+        synchronized (this.pendingSaves) {
+            pending = this.pendingSaves.remove(path);
+        }
+
+        // written on the I/O thread as well, so it can't race with a delayed save of the same config
+        final Future<?> write = IO_EXECUTOR.submit(() -> {
+            write(path, snapshot);
+            return null;
+        });
+
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while saving config", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (pending != null) pending.future.completeExceptionally(cause);
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof ObjectMappingException) throw (ObjectMappingException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+
+        if (pending != null) pending.future.complete(null);
+        return true;
+    }
+
+    /**
+     * Saves the config without stalling the calling thread. The module properties are captured right away and
+     * the file is written on the I/O thread, replacing any delayed save of it.
+     *
+     * @return future completed on the main thread once the config is written, or with the exception
+     * {@link #save(String)} would have thrown
+     */
+    @NotNull
+    public CompletableFuture<Void> saveAsync(@NotNull String name) {
+        return saveAsync(name, 0L);
+    }
+
+    /**
+     * Like {@link #saveAsync(String)}, but the file is written {@value #SAVE_DELAY} ms later. Saves of the same
+     * config within that delay are coalesced, only the latest state is written. Meant for saves that are
+     * triggered by every change, explicit saves should use {@link #saveAsync(String)}.
+     */
+    @NotNull
+    public CompletableFuture<Void> saveLater(@NotNull String name) {
+        return saveAsync(name, SAVE_DELAY);
+    }
+
+    @NotNull
+    private CompletableFuture<Void> saveAsync(@NotNull String name, long delay) {
+        final Path path = getConfigPath(name);
+        final ConfigurationNode snapshot;
+
+        try {
+            snapshot = snapshot(name);
+        } catch (ObjectMappingException e) {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        final CompletableFuture<Void> written;
+
+        synchronized (this.pendingSaves) {
+            PendingSave pending = this.pendingSaves.get(path);
+
+            if (pending != null) {
+                pending.snapshot = snapshot;
+                written = pending.future;
 
+                // the write that is already scheduled finds nothing left to do
+                if (delay == 0L) IO_EXECUTOR.execute(() -> writePending(path));
+            } else {
+                pending = new PendingSave(snapshot);
+                this.pendingSaves.put(path, pending);
+                written = pending.future;
+
+                IO_EXECUTOR.schedule(() -> writePending(path), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        written.whenComplete((ignored, throwable) -> Minecraft.getInstance().addScheduledTask(() -> {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(null);
+            }
+        }));
+
+        return future;
+    }
+
+    /**
+     * Writes every save that is still waiting for its delay and waits for it, used before shutting down.
+     */
+    public void flush() {
+        final List<Path> paths;
+
+        synchronized (this.pendingSaves) {
+            paths = new ObjectArrayList<>(this.pendingSaves.keySet());
+        }
+
+        try {
+            IO_EXECUTOR.submit(() -> paths.forEach(this::writePending)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            getLogger().warn("An error occurred while writing pending configs", e.getCause());
+        }
+    }
+
+    private void writePending(@NotNull Path path) {
+        final PendingSave pending;
+
+        synchronized (this.pendingSaves) {
+            pending = this.pendingSaves.remove(path);
+        }
+
+        if (pending == null) return;
+
+        try {
+            write(path, pending.snapshot);
+            pending.future.complete(null);
+        } catch (Throwable t) {
+            pending.future.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Serializes the current state of the modules into a detached node, which can be written from any thread.
+     */
+    @NotNull
+    private ConfigurationNode snapshot(@NotNull String name) throws ObjectMappingException {
+        final ConfigurationNode snapshot = SimpleConfigurationNode.root(defaultOptions());
+        snapshot.setValue(TypeToken.of(ClientConfig.class), ClientConfig.of(this, name));
+        return snapshot;
+    }
+
+    private void write(@NotNull Path path, @NotNull ConfigurationNode snapshot) throws IOException {
         if (notExists(path)) {
             createFile(path);
         }
 
         final ConfigurationOptions options = defaultOptions();
+        // the loader writes to a temporary file and moves it over the config, so a crash never leaves half a config
         final HoconConfigurationLoader loader = HoconConfigurationLoader.builder().setDefaultOptions(options)
                 .setPath(path).build();
         final ConfigurationNode node;
@@ -167,23 +382,44 @@ public final class ConfigManager {
             throw new ReadConfigException(e);
         }
 
-        final ClientConfig value = ClientConfig.of(this, name);
-        node.setValue(TypeToken.of(ClientConfig.class), value);
-
-        loader.save(node);
-        return true;
+        // keeps whatever the file has that the modules don't, like the old in-place save did
+        snapshot.mergeValuesFrom(node);
+        loader.save(snapshot);
     }
 
     public boolean delete(@NotNull String name) throws IOException {
         final Path path = getConfigPath(name);
+        final PendingSave pending;
+
+        synchronized (this.pendingSaves) {
+            pending = this.pendingSaves.remove(path);
+        }
 
-        if (Files.notExists(path)) {
+        // the config is going away, so a save of it that still waits for its delay is dropped
+        if (pending != null) pending.future.complete(null);
+
+        // deleted on the I/O thread as well, so a save that is being written can't bring the file back
+        final Future<Boolean> deletion = IO_EXECUTOR.submit(() -> Files.deleteIfExists(path));
+        final boolean deleted;
+
+        try {
+            deleted = deletion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while deleting config", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+
+        if (!deleted && pending == null) {
             throw new FileNotFoundException();
             // NotificationManager.pop("Config does not exist!", 5_000, NotificationType.ERROR);
             // return false;
         }
 
-        Files.deleteIfExists(path);
         return true;
     }
 
@@ -298,4 +534,15 @@ public final class ConfigManager {
     }
     //endregion
 
+    private static final class PendingSave {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private ConfigurationNode snapshot;
+
+        private PendingSave(@NotNull ConfigurationNode snapshot) {
+            this.snapshot = snapshot;
+        }
+
+    }
+
 }
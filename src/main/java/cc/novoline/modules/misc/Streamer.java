@@ -12,10 +12,14 @@ import cc.novoline.modules.configurations.annotation.Property;
 import cc.novoline.modules.configurations.property.object.BooleanProperty;
 import cc.novoline.modules.configurations.property.object.PropertyFactory;
 import cc.novoline.modules.configurations.property.object.StringProperty;
+import cc.novoline.utils.java.StringReplacer;
 import net.minecraft.client.network.NetworkPlayerInfo;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static cc.novoline.gui.screen.setting.Manager.put;
@@ -24,6 +28,8 @@ public final class Streamer extends AbstractModule {
 
     /* fields */
     public List<String> name_data = new CopyOnWriteArrayList<>();
+    private volatile int namesVersion;
+    private volatile NameReplacer nameReplacer = new NameReplacer(-1, null, null, false, false, StringReplacer.empty());
 
     /* properties @off */
     @Property("local-player-name")
@@ -51,6 +57,7 @@ public final class Streamer extends AbstractModule {
 
             if (!name_data.contains(name)) {
                 name_data.add(name);
+                namesVersion++;
             }
         }
     }
@@ -59,6 +66,7 @@ public final class Streamer extends AbstractModule {
     public void onLoadWorld(LoadWorldEvent event) {
         if (!name_data.isEmpty()) {
             name_data.clear();
+            namesVersion++;
         }
     }
 
@@ -66,9 +74,52 @@ public final class Streamer extends AbstractModule {
     public void onDisable() {
         if (!name_data.isEmpty()) {
             name_data.clear();
+            namesVersion++;
         }
     }
 
+    /**
+     * Hides the collected player names in the given text, according to the current settings.
+     * The names are compiled into a single replacer, which is only rebuilt once the names or settings change.
+     *
+     * @param text text which is about to be drawn
+     * @return the text with the names replaced, or the same instance if nothing had to be replaced
+     */
+    public String replaceNames(String text) {
+        if (!isEnabled() || mc.world == null || mc.player == null) return text;
+
+        final String playerName = mc.player.getName();
+        final String yourName = this.your_name.get();
+        final boolean hideYourself = this.hide_yourself.get();
+        final boolean hideOthers = this.hide_others.get();
+        NameReplacer replacer = this.nameReplacer;
+
+        if (replacer.version != this.namesVersion || !Objects.equals(replacer.playerName, playerName)
+                || !Objects.equals(replacer.yourName, yourName) || replacer.hideYourself != hideYourself
+                || replacer.hideOthers != hideOthers) {
+            this.nameReplacer = replacer = compileNames(playerName, yourName, hideYourself, hideOthers);
+        }
+
+        return replacer.replacer.replace(text);
+    }
+
+    private NameReplacer compileNames(String playerName, String yourName, boolean hideYourself, boolean hideOthers) {
+        final int version = this.namesVersion;
+        final Map<String, String> replacements = new LinkedHashMap<>();
+
+        for (String name : name_data) {
+            if (name.equalsIgnoreCase(playerName)) {
+                if (hideYourself) {
+                    replacements.put(name, yourName.replace("&", "\u00A7"));
+                }
+            } else if (hideOthers) {
+                replacements.put(name, "Player");
+            }
+        }
+
+        return new NameReplacer(version, playerName, yourName, hideYourself, hideOthers, StringReplacer.compile(replacements));
+    }
+
     //region Lombok
     public StringProperty getYourName() {
         return this.your_name;
@@ -87,4 +138,24 @@ public final class Streamer extends AbstractModule {
     }
     //endregion
 
+    private static final class NameReplacer {
+
+        private final int version;
+        private final String playerName;
+        private final String yourName;
+        private final boolean hideYourself;
+        private final boolean hideOthers;
+        private final StringReplacer replacer;
+
+        private NameReplacer(int version, String playerName, String yourName, boolean hideYourself, boolean hideOthers,
+                             StringReplacer replacer) {
+            this.version = version;
+            this.playerName = playerName;
+            this.yourName = yourName;
+            this.hideYourself = hideYourself;
+            this.hideOthers = hideOthers;
+            this.replacer = replacer;
+        }
+    }
+
 }
@@ -0,0 +1,57 @@
+package cc.novoline.utils.fonts.impl;
+
+import cc.novoline.Novoline;
+import cc.novoline.utils.shader.GLSLSandboxShader;
+import net.minecraft.client.renderer.OpenGlHelper;
+
+import java.io.IOException;
+
+import static org.lwjgl.opengl.GL20.*;
+
+/**
+ * Shader drawing the distance field glyph atlases: it turns the stored distance into a smooth outline whose
+ * edge is always about one screen pixel wide, whatever the text is scaled to.
+ * <p>
+ * The program is linked on first use. If the driver can't run it {@link #program()} returns 0 and the atlases
+ * are drawn with an alpha test instead, which keeps the shape but loses the anti-aliasing.
+ */
+final class DistanceFieldShader {
+
+    private static final String LOCATION = "/assets/minecraft/shaders/program/novoline_sdf";
+
+    private static boolean linked;
+    private static int program;
+
+    private DistanceFieldShader() {
+    }
+
+    /**
+     * @return The GL program, or 0 if it isn't available. Must be called on the render thread.
+     */
+    static int program() {
+        if (!linked) {
+            linked = true;
+
+            if (OpenGlHelper.openGL21) {
+                try {
+                    program = link();
+                } catch (IOException | IllegalStateException e) {
+                    Novoline.getLogger().warn("Couldn't link the distance field font shader, falling back to alpha testing", e);
+                }
+            }
+        }
+
+        return program;
+    }
+
+    private static int link() throws IOException {
+        final int program = GLSLSandboxShader.createProgram(LOCATION + ".vsh", LOCATION + ".fsh");
+
+        glUseProgram(program);
+        glUniform1i(glGetUniformLocation(program, "atlas"), 0);
+        glUseProgram(0);
+
+        return program;
+    }
+
+}
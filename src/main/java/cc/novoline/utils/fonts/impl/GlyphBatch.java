@@ -0,0 +1,125 @@
+package cc.novoline.utils.fonts.impl;
+
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.client.renderer.WorldVertexBufferUploader;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL20;
+
+/**
+ * Collects the glyph quads of a string into one vertex buffer per glyph atlas, with the colour
+ * stored per vertex, so a whole string is drawn with one draw call per atlas instead of one per glyph.
+ * Underlines and strikethroughs go into a separate untextured line buffer.
+ * <p>
+ * Text is only drawn from the render thread, so a single batch is shared by every font renderer.
+ */
+final class GlyphBatch {
+
+    static final GlyphBatch INSTANCE = new GlyphBatch();
+
+    private static final int MAX_ATLASES = 8;
+    private static final int BUFFER_SIZE = 16384;
+
+    private final int[] textures = new int[MAX_ATLASES];
+    private final WorldRenderer[] buffers = new WorldRenderer[MAX_ATLASES];
+    private final WorldRenderer lines = new WorldRenderer(BUFFER_SIZE / 4);
+    private final WorldVertexBufferUploader uploader = new WorldVertexBufferUploader();
+
+    private int program;
+    private int atlases;
+    private boolean hasLines;
+
+    private GlyphBatch() {
+    }
+
+    /**
+     * Sets the shader program the glyph quads are drawn with from now on, 0 for the fixed function pipeline.
+     * Lines are always drawn without it.
+     */
+    void program(int program) {
+        this.program = program;
+    }
+
+    /**
+     * Adds a textured quad to the buffer of the given atlas.
+     */
+    void quad(int texture, float x, float y, float width, float height,
+              float u, float v, float u2, float v2, int red, int green, int blue, int alpha) {
+        final WorldRenderer buffer = buffer(texture);
+
+        buffer.pos(x + width, y, 0.0D).tex(u2, v).color(red, green, blue, alpha).endVertex();
+        buffer.pos(x, y, 0.0D).tex(u, v).color(red, green, blue, alpha).endVertex();
+        buffer.pos(x, y + height, 0.0D).tex(u, v2).color(red, green, blue, alpha).endVertex();
+        buffer.pos(x + width, y + height, 0.0D).tex(u2, v2).color(red, green, blue, alpha).endVertex();
+    }
+
+    /**
+     * Adds a 1px line, used for underlined and struck through text.
+     */
+    void line(double x, double y, double x1, double y1, int red, int green, int blue, int alpha) {
+        if (!this.hasLines) {
+            this.lines.begin(GL11.GL_LINES, DefaultVertexFormats.POSITION_COLOR);
+            this.hasLines = true;
+        }
+
+        this.lines.pos(x, y, 0.0D).color(red, green, blue, alpha).endVertex();
+        this.lines.pos(x1, y1, 0.0D).color(red, green, blue, alpha).endVertex();
+    }
+
+    /**
+     * Draws everything that was collected since the last flush, one draw call per atlas.
+     */
+    void flush() {
+        if (this.program != 0 && this.atlases != 0) {
+            GL20.glUseProgram(this.program);
+        }
+
+        for (int i = 0; i < this.atlases; i++) {
+            final WorldRenderer buffer = this.buffers[i];
+
+            buffer.finishDrawing();
+            GlStateManager.bindTexture(this.textures[i]);
+            this.uploader.func_181679_a(buffer);
+        }
+
+        if (this.program != 0 && this.atlases != 0) {
+            GL20.glUseProgram(0);
+        }
+
+        this.atlases = 0;
+
+        if (this.hasLines) {
+            this.hasLines = false;
+            this.lines.finishDrawing();
+
+            GlStateManager.disableTexture2D();
+            GL11.glLineWidth(1.0F);
+            this.uploader.func_181679_a(this.lines);
+            GlStateManager.enableTexture2D();
+        }
+    }
+
+    private WorldRenderer buffer(int texture) {
+        for (int i = 0; i < this.atlases; i++) {
+            if (this.textures[i] == texture) {
+                return this.buffers[i];
+            }
+        }
+
+        if (this.atlases == MAX_ATLASES) {
+            flush();
+        }
+
+        WorldRenderer buffer = this.buffers[this.atlases];
+
+        if (buffer == null) {
+            this.buffers[this.atlases] = buffer = new WorldRenderer(BUFFER_SIZE);
+        }
+
+        buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+        this.textures[this.atlases++] = texture;
+        return buffer;
+    }
+
+}
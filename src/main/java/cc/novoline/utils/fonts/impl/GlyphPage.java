@@ -0,0 +1,384 @@
+package cc.novoline.utils.fonts.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import org.lwjgl.opengl.GL11;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Atlas of one block of 256 characters ({@code character >> 8}) of a single AWT font.
+ * <p>
+ * The glyph metrics are measured when the page is created, so text can be laid out right away.
+ * The glyphs themselves are rasterized with AWT on a background thread and the texture is uploaded
+ * on the render thread the first time the page is drawn. Pages are cached per font, so every
+ * renderer using an equal font (e.g. the fallback font of one size) shares the same texture.
+ * <p>
+ * Distance field pages are always built at {@link #DISTANCE_FIELD_SIZE}, so a single page serves every size of
+ * a typeface. Their texels hold the signed distance to the glyph outline instead of its coverage, and each
+ * glyph cell has {@link #SPREAD} texels of padding around it for the distance to fade out in.
+ */
+final class GlyphPage {
+
+    static final int GLYPHS = 256;
+    static final float DISTANCE_FIELD_SIZE = 32.0F;
+    static final int SPREAD = 4;
+
+    // distance fields are computed on a finer raster and sampled down, which keeps thin stems and corners intact
+    private static final int UPSCALE = 4;
+    private static final double INFINITY = 1.0E20D;
+
+    private static final int WIDTH = 512;
+    private static final int MAX_HEIGHT = 2048;
+
+    private static final Map<Key, GlyphPage> PAGES = new ConcurrentHashMap<>();
+    private static final ExecutorService RASTERIZER = Executors.newFixedThreadPool(2,
+            new ThreadFactoryBuilder().setNameFormat("Glyph Rasterizer #%d").setDaemon(true).build());
+
+    private final Font font;
+    private final boolean fractionalMetrics;
+    private final int index;
+    private final boolean distanceField;
+    private final int padding;
+    private final boolean blocking;
+    private final Glyph[] glyphs = new Glyph[GLYPHS];
+    private final int height;
+
+    private CompletableFuture<BufferedImage> image;
+    private DynamicTexture texture;
+
+    private GlyphPage(Font font, boolean fractionalMetrics, int index, boolean complete, boolean distanceField) {
+        this.font = font;
+        this.fractionalMetrics = fractionalMetrics;
+        this.index = index;
+        this.distanceField = distanceField;
+        this.padding = distanceField ? SPREAD : 0;
+        // the latin page is in nearly every string, so it is never drawn with missing glyphs
+        this.blocking = index == 0;
+
+        final FontRenderContext context = new FontRenderContext(null, true, fractionalMetrics);
+        int rowHeight = 0, positionX = 0, positionY = 1;
+
+        for (int i = 0; i < GLYPHS; i++) {
+            final char character = (char) (index << 8 | i);
+            if (!complete && !font.canDisplay(character)) continue;
+
+            final Rectangle bounds = font.getStringBounds(String.valueOf(character), context).getBounds();
+            final Glyph glyph = new Glyph(this, bounds.width + 8, bounds.height);
+            final int cellWidth = glyph.width + this.padding * 2;
+            final int cellHeight = glyph.height + this.padding * 2;
+
+            if (positionX + cellWidth >= WIDTH) {
+                positionX = 0;
+                positionY += rowHeight;
+                rowHeight = 0;
+            }
+
+            if (cellHeight > rowHeight) {
+                rowHeight = cellHeight;
+            }
+
+            glyph.storedX = positionX + this.padding;
+            glyph.storedY = positionY + this.padding;
+            this.glyphs[i] = glyph;
+
+            positionX += cellWidth;
+        }
+
+        int height = 64;
+
+        while (height < positionY + rowHeight && height < MAX_HEIGHT) {
+            height <<= 1;
+        }
+
+        this.height = height;
+
+        for (final Glyph glyph : this.glyphs) {
+            if (glyph == null) continue;
+
+            glyph.u = (glyph.storedX - this.padding) / (float) WIDTH;
+            glyph.v = (glyph.storedY - this.padding) / (float) height;
+            glyph.u2 = (glyph.storedX + glyph.width + this.padding) / (float) WIDTH;
+            glyph.v2 = (glyph.storedY + glyph.height + this.padding) / (float) height;
+        }
+
+        this.image = CompletableFuture.supplyAsync(distanceField ? this::rasterizeDistanceField : this::rasterize,
+                RASTERIZER);
+    }
+
+    /**
+     * Gets the page of the given font containing the given block of characters, creating it on first use.
+     *
+     * @param complete whether characters the font can't display are kept as well (as the font's
+     *                 missing glyph) instead of being left out for a fallback font
+     */
+    static GlyphPage get(Font font, boolean fractionalMetrics, int index, boolean complete) {
+        return PAGES.computeIfAbsent(new Key(font, fractionalMetrics, index, complete, false),
+                key -> new GlyphPage(font, fractionalMetrics, index, complete, false));
+    }
+
+    /**
+     * Gets the distance field page of the given typeface containing the given block of characters, creating it on
+     * first use. The size of the given font doesn't matter, all sizes share the same page.
+     *
+     * @see #get(Font, boolean, int, boolean)
+     */
+    static GlyphPage distanceField(Font typeface, int index, boolean complete) {
+        final Font font = typeface.deriveFont(DISTANCE_FIELD_SIZE);
+
+        return PAGES.computeIfAbsent(new Key(font, true, index, complete, true),
+                key -> new GlyphPage(font, true, index, complete, true));
+    }
+
+    /**
+     * @return The glyph of the given character, or null if this page leaves it out.
+     */
+    Glyph glyph(char character) {
+        return this.glyphs[character & 0xFF];
+    }
+
+    /**
+     * Gets the texture of this page, uploading it if the rasterizer is done. Must be called on the render thread.
+     *
+     * @return The GL texture id, or -1 if the glyphs aren't rasterized yet.
+     */
+    int textureId() {
+        if (this.texture != null) {
+            return this.texture.getGlTextureId();
+        }
+
+        if (!this.blocking && !this.image.isDone()) {
+            return -1;
+        }
+
+        this.texture = new DynamicTexture(this.image.join());
+        this.image = null;
+
+        GlStateManager.bindTexture(this.texture.getGlTextureId());
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+
+        if (this.distanceField) {
+            // distances interpolate linearly, which is what keeps the outline smooth when minified
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        }
+
+        return this.texture.getGlTextureId();
+    }
+
+    private BufferedImage rasterize() {
+        final BufferedImage image = new BufferedImage(WIDTH, this.height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = image.createGraphics();
+
+        graphics.setFont(this.font);
+        graphics.setColor(new Color(255, 255, 255, 0));
+        graphics.fillRect(0, 0, WIDTH, this.height);
+        graphics.setColor(Color.WHITE);
+
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, this.fractionalMetrics
+                ? RenderingHints.VALUE_FRACTIONALMETRICS_ON
+                : RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+
+        final int ascent = graphics.getFontMetrics().getAscent();
+
+        for (int i = 0; i < GLYPHS; i++) {
+            final Glyph glyph = this.glyphs[i];
+            if (glyph == null) continue;
+
+            final char character = (char) (this.index << 8 | i);
+            graphics.drawString(String.valueOf(character), glyph.storedX + 2, glyph.storedY + ascent);
+        }
+
+        graphics.dispose();
+        return image;
+    }
+
+    private BufferedImage rasterizeDistanceField() {
+        final BufferedImage image = new BufferedImage(WIDTH, this.height, BufferedImage.TYPE_INT_ARGB);
+        final Font font = this.font.deriveFont(this.font.getSize2D() * UPSCALE);
+
+        for (int i = 0; i < GLYPHS; i++) {
+            final Glyph glyph = this.glyphs[i];
+            if (glyph == null) continue;
+
+            final int cellWidth = glyph.width + this.padding * 2;
+            final int cellHeight = glyph.height + this.padding * 2;
+            final int width = cellWidth * UPSCALE;
+            final int height = cellHeight * UPSCALE;
+
+            final BufferedImage coverage = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            final Graphics2D graphics = coverage.createGraphics();
+
+            graphics.setFont(font);
+            graphics.setColor(Color.WHITE);
+            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            graphics.drawString(String.valueOf((char) (this.index << 8 | i)),
+                    (this.padding + 2) * UPSCALE, this.padding * UPSCALE + graphics.getFontMetrics().getAscent());
+            graphics.dispose();
+
+            final double[] inside = new double[width * height];
+            final double[] outside = new double[width * height];
+            final byte[] pixels = ((DataBufferByte) coverage.getRaster().getDataBuffer()).getData();
+
+            for (int pixel = 0; pixel < pixels.length; pixel++) {
+                final boolean filled = (pixels[pixel] & 0xFF) >= 128;
+
+                inside[pixel] = filled ? INFINITY : 0.0D;
+                outside[pixel] = filled ? 0.0D : INFINITY;
+            }
+
+            distanceTransform(inside, width, height);
+            distanceTransform(outside, width, height);
+
+            final int originX = glyph.storedX - this.padding;
+            final int originY = glyph.storedY - this.padding;
+
+            for (int y = 0; y < cellHeight; y++) {
+                for (int x = 0; x < cellWidth; x++) {
+                    final int sample = (y * UPSCALE + UPSCALE / 2) * width + x * UPSCALE + UPSCALE / 2;
+                    // positive inside the glyph, in texels of the page
+                    final double distance = (Math.sqrt(inside[sample]) - Math.sqrt(outside[sample])) / UPSCALE;
+                    final double value = Math.max(0.0D, Math.min(1.0D, 0.5D + distance / (2.0D * SPREAD)));
+
+                    image.setRGB(originX + x, originY + y, (int) Math.round(value * 255.0D) << 24 | 0xFFFFFF);
+                }
+            }
+        }
+
+        return image;
+    }
+
+    /**
+     * Replaces every value of the grid, 0 for the pixels that are measured to and infinity for the others,
+     * with the squared euclidean distance to the nearest 0 pixel (Felzenszwalb and Huttenlocher).
+     */
+    private static void distanceTransform(double[] grid, int width, int height) {
+        final int length = Math.max(width, height);
+        final double[] f = new double[length];
+        final double[] d = new double[length];
+        final double[] z = new double[length + 1];
+        final int[] v = new int[length];
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) f[y] = grid[y * width + x];
+            distanceTransform(f, d, z, v, height);
+            for (int y = 0; y < height; y++) grid[y * width + x] = d[y];
+        }
+
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(grid, y * width, f, 0, width);
+            distanceTransform(f, d, z, v, width);
+            System.arraycopy(d, 0, grid, y * width, width);
+        }
+    }
+
+    private static void distanceTransform(double[] f, double[] d, double[] z, int[] v, int length) {
+        int k = 0;
+        v[0] = 0;
+        z[0] = -INFINITY;
+        z[1] = INFINITY;
+
+        for (int q = 1; q < length; q++) {
+            double s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+
+            while (s <= z[k]) {
+                k--;
+                s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+            }
+
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = INFINITY;
+        }
+
+        k = 0;
+
+        for (int q = 0; q < length; q++) {
+            while (z[k + 1] < q) k++;
+
+            final int offset = q - v[k];
+            d[q] = offset * offset + f[v[k]];
+        }
+    }
+
+    /**
+     * @return Texels of padding around each glyph cell, which is part of the glyph's texture coordinates.
+     */
+    int padding() {
+        return this.padding;
+    }
+
+    boolean isDistanceField() {
+        return this.distanceField;
+    }
+
+    static final class Glyph {
+
+        final GlyphPage page;
+        final int width;
+        final int height;
+
+        private int storedX;
+        private int storedY;
+
+        float u;
+        float v;
+        float u2;
+        float v2;
+
+        private Glyph(GlyphPage page, int width, int height) {
+            this.page = page;
+            this.width = width;
+            this.height = height;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final Font font;
+        private final boolean fractionalMetrics;
+        private final int index;
+        private final boolean complete;
+        private final boolean distanceField;
+
+        private Key(Font font, boolean fractionalMetrics, int index, boolean complete, boolean distanceField) {
+            this.font = font;
+            this.fractionalMetrics = fractionalMetrics;
+            this.index = index;
+            this.complete = complete;
+            this.distanceField = distanceField;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key key = (Key) o;
+            return this.fractionalMetrics == key.fractionalMetrics && this.index == key.index
+                    && this.complete == key.complete && this.distanceField == key.distanceField
+                    && this.font.equals(key.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.font, this.fractionalMetrics, this.index, this.complete, this.distanceField);
+        }
+
+    }
+
+}
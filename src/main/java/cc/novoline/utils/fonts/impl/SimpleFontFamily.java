@@ -13,20 +13,23 @@ final class SimpleFontFamily extends Int2ObjectAVLTreeMap<FontRenderer> implemen
 
 	private final FontType fontType;
 	private final java.awt.Font awtFont;
+	private final boolean distanceField;
 
-	private SimpleFontFamily(FontType fontType, java.awt.Font awtFont) {
+	private SimpleFontFamily(FontType fontType, java.awt.Font awtFont, boolean distanceField) {
 		this.fontType = fontType;
 		this.awtFont = awtFont;
+		this.distanceField = distanceField;
 	}
 
-	static FontFamily create(FontType fontType, java.awt.Font awtFont) {
-		return new SimpleFontFamily(fontType, awtFont);
+	static FontFamily create(FontType fontType, java.awt.Font awtFont, boolean distanceField) {
+		return new SimpleFontFamily(fontType, awtFont, distanceField);
 	}
 
 	@Override
 	public FontRenderer ofSize(int size) {
 		return computeIfAbsent(size, ignored -> {
-			return SimpleFontRenderer.create(awtFont.deriveFont(java.awt.Font.PLAIN, size));
+			final java.awt.Font font = awtFont.deriveFont(java.awt.Font.PLAIN, size);
+			return distanceField ? SimpleFontRenderer.createDistanceField(font) : SimpleFontRenderer.create(font);
 		});
 	}
 
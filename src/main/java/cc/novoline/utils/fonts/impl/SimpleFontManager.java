@@ -20,15 +20,25 @@ import net.minecraft.util.ResourceLocation;
 public final class SimpleFontManager implements FontManager {
 
 	//region instantiating
-	private SimpleFontManager() {}
+	private SimpleFontManager(boolean distanceField) {
+		this.fonts = new FontRegistry(distanceField);
+	}
 
 	public static FontManager create() {
-		return new SimpleFontManager();
+		return create(false);
+	}
+
+	/**
+	 * @param distanceField whether the fonts are drawn from one distance field atlas per typeface instead of a
+	 *                      bitmap atlas per size, see {@link SimpleFontRenderer#createDistanceField(Font)}
+	 */
+	public static FontManager create(boolean distanceField) {
+		return new SimpleFontManager(distanceField);
 	}
 	//endregion
 
 	private static final String FONT_DIRECTORY = "novoline/fonts/";
-	private final FontRegistry fonts = new FontRegistry();
+	private final FontRegistry fonts;
 
 	@Override
 	public FontFamily fontFamily(FontType fontType) {
@@ -37,12 +47,17 @@ public final class SimpleFontManager implements FontManager {
 
 	private static final class FontRegistry extends EnumMap<FontType, FontFamily> {
 
-		private FontRegistry() { super(FontType.class); }
+		private final boolean distanceField;
+
+		private FontRegistry(boolean distanceField) {
+			super(FontType.class);
+			this.distanceField = distanceField;
+		}
 
 		private FontFamily fontFamily(FontType fontType) {
 			return computeIfAbsent(fontType, ignored -> {
 				try {
-					return SimpleFontFamily.create(fontType, readFontFromResources(fontType));
+					return SimpleFontFamily.create(fontType, readFontFromResources(fontType), distanceField);
 				} catch(IOException e) {
 					throw SneakyThrowing.sneakyThrow(e);
 				}
@@ -3,16 +3,11 @@ package cc.novoline.utils.fonts.impl;
 import cc.novoline.Novoline;
 import cc.novoline.modules.misc.Streamer;
 import cc.novoline.utils.fonts.api.FontRenderer;
-import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
-import net.minecraft.client.renderer.texture.DynamicTexture;
 import org.lwjgl.opengl.GL11;
 
 import java.awt.*;
-import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
-
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import java.awt.font.FontRenderContext;
 
 /**z
  * @author gast
@@ -25,107 +20,120 @@ final class SimpleFontRenderer implements FontRenderer {
     private static final String COLORS = "0123456789abcdefklmnor";
     private static final char COLOR_PREFIX = '\u00a7';
 
-    private static final short CHARS = 256;
-    private static final float IMG_SIZE = 512;
-    private static final float CHAR_OFFSET = 0f;
-
-    private final CharData[] charData = new CharData[CHARS];
-    private final CharData[] boldChars = new CharData[CHARS];
-    private final CharData[] italicChars = new CharData[CHARS];
-    private final CharData[] boldItalicChars = new CharData[CHARS];
+    private static final int STYLES = 4;
+    private static final int PAGES = 256;
 
     private final Font awtFont;
     private final boolean antiAlias;
     private final boolean fractionalMetrics;
+    private final boolean distanceField;
+    // size of the drawn glyphs relative to the size their atlas was built at
+    private final float glyphScale;
 
-    private DynamicTexture texturePlain;
-    private DynamicTexture textureBold;
-    private DynamicTexture textureItalic;
-    private DynamicTexture textureItalicBold;
-    private int fontHeight = -1;
+    // plain, bold, italic and bold italic, indexed by the style bits of TextLayout
+    private final Font[] styleFonts;
+    private final GlyphPage[][] stylePages = new GlyphPage[STYLES][PAGES];
+    private final GlyphPage[][] fallbackPages = new GlyphPage[STYLES][PAGES];
+    private Font[] fallbackFonts;
+    private final int fontHeight;
 
     //region instantiating
-    private SimpleFontRenderer(Font awtFont, boolean antiAlias, boolean fractionalMetrics) {
+    private SimpleFontRenderer(Font awtFont, boolean antiAlias, boolean fractionalMetrics, boolean distanceField) {
         this.awtFont = awtFont;
         this.antiAlias = antiAlias;
         this.fractionalMetrics = fractionalMetrics;
-        setupBoldItalicFonts();
+        this.distanceField = distanceField;
+        this.glyphScale = distanceField ? awtFont.getSize2D() / GlyphPage.DISTANCE_FIELD_SIZE : 1.0F;
+        this.styleFonts = new Font[]{awtFont, awtFont.deriveFont(Font.BOLD), awtFont.deriveFont(Font.ITALIC),
+                awtFont.deriveFont(Font.BOLD | Font.ITALIC)};
+        this.fontHeight = measureHeight();
+
+        // start rasterizing the latin page right away, the other pages and styles are only built once they are used
+        page(0, 0);
     }
 
-    static FontRenderer create(Font font, boolean antiAlias, boolean fractionalMetrics) {
-        return new SimpleFontRenderer(font, antiAlias, fractionalMetrics);
+    static FontRenderer create(Font font, boolean antiAlias, boolean fractionalMetrics, boolean distanceField) {
+        return new SimpleFontRenderer(font, antiAlias, fractionalMetrics, distanceField);
     }
 
     public static FontRenderer create(Font font) {
-        return create(font, true, true);
+        return create(font, true, true, false);
     }
 
-    private DynamicTexture setupTexture(Font font, boolean antiAlias, boolean fractionalMetrics, CharData[] chars) {
-        return new DynamicTexture(generateFontImage(font, antiAlias, fractionalMetrics, chars));
+    /**
+     * Creates a renderer drawing from the distance field atlas of the font's typeface, which is shared by every size
+     * of it and stays sharp when the text is scaled.
+     */
+    public static FontRenderer createDistanceField(Font font) {
+        return create(font, true, true, true);
     }
 
-    private BufferedImage generateFontImage(Font font, boolean antiAlias, boolean fractionalMetrics, CharData[] chars) {
-        final int imgSize = (int) IMG_SIZE;
-        BufferedImage bufferedImage = new BufferedImage(imgSize, imgSize, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D graphics = (Graphics2D) bufferedImage.getGraphics();
-
-        graphics.setFont(font);
-        graphics.setColor(new Color(255, 255, 255, 0));
-        graphics.fillRect(0, 0, imgSize, imgSize);
-        graphics.setColor(Color.WHITE);
+    /**
+     * Every glyph of a font has the height of the font's line metrics, so there is no need to measure the whole
+     * atlas for it.
+     */
+    private int measureHeight() {
+        final FontRenderContext context = new FontRenderContext(null, true, this.fractionalMetrics);
+        int height = 0;
 
-        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-
-        if (this.fractionalMetrics) {
-            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-        } else {
-            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+        for (final Font font : this.styleFonts) {
+            height = Math.max(height, font.getStringBounds(" ", context).getBounds().height);
         }
 
-        FontMetrics fontMetrics = graphics.getFontMetrics();
-        int charHeight = 0, positionX = 0, positionY = 1;
-
-        for (int i = 0; i < chars.length; i++) {
-            char ch = (char) i;
-            CharData charData = new CharData();
-            Rectangle2D dimensions = fontMetrics.getStringBounds(String.valueOf(ch), graphics);
-
-            charData.width = dimensions.getBounds().width + 8;
-            charData.height = dimensions.getBounds().height;
+        return height;
+    }
+    //endregion
 
-            if (positionX + charData.width >= imgSize) {
-                positionX = 0;
-                positionY += charHeight;
-                charHeight = 0;
-            }
+    //region glyphs
+    private GlyphPage page(int style, int index) {
+        GlyphPage page = this.stylePages[style][index];
 
-            if (charData.height > charHeight) {
-                charHeight = charData.height;
-            }
+        if (page == null) {
+            // the latin page keeps every character so it renders exactly like the old fixed atlas did
+            page = this.distanceField
+                    ? GlyphPage.distanceField(this.styleFonts[style], index, index == 0)
+                    : GlyphPage.get(this.styleFonts[style], this.fractionalMetrics, index, index == 0);
+            this.stylePages[style][index] = page;
+        }
 
-            charData.storedX = positionX;
-            charData.storedY = positionY;
+        return page;
+    }
 
-            if (charData.height > fontHeight) {
-                this.fontHeight = charData.height;
+    /**
+     * Gets the glyph of the given character, from the fallback font if this font can't display it.
+     */
+    private GlyphPage.Glyph glyph(int style, char character) {
+        final GlyphPage.Glyph glyph = page(style, character >> 8).glyph(character);
+        if (glyph != null) return glyph;
+
+        final int index = character >> 8;
+        GlyphPage page = this.fallbackPages[style][index];
+
+        if (page == null) {
+            if (this.fallbackFonts == null) {
+                final Font fallback = new Font(Font.DIALOG, Font.PLAIN, this.awtFont.getSize());
+                this.fallbackFonts = new Font[]{fallback, fallback.deriveFont(Font.BOLD),
+                        fallback.deriveFont(Font.ITALIC), fallback.deriveFont(Font.BOLD | Font.ITALIC)};
             }
 
-            chars[i] = charData;
-
-            graphics.drawString(String.valueOf(ch), positionX + 2, positionY + fontMetrics.getAscent());
-            positionX += charData.width;
+            page = this.distanceField
+                    ? GlyphPage.distanceField(this.fallbackFonts[style], index, true)
+                    : GlyphPage.get(this.fallbackFonts[style], this.fractionalMetrics, index, true);
+            this.fallbackPages[style][index] = page;
         }
 
-        return bufferedImage;
+        return page.glyph(character);
+    }
+
+    /**
+     * @return Width of the glyph at the size of this renderer, including the 8px the atlas pads each glyph with.
+     */
+    private int glyphWidth(GlyphPage.Glyph glyph) {
+        return this.distanceField ? Math.round((glyph.width - 8) * this.glyphScale) + 8 : glyph.width;
     }
 
-    private void setupBoldItalicFonts() {
-        this.texturePlain = setupTexture(awtFont, antiAlias, fractionalMetrics, charData);
-        this.textureBold = setupTexture(awtFont.deriveFont(Font.BOLD), antiAlias, fractionalMetrics, boldChars);
-        this.textureItalic = setupTexture(awtFont.deriveFont(Font.ITALIC), antiAlias, fractionalMetrics, italicChars);
-        this.textureItalicBold = setupTexture(awtFont.deriveFont(Font.BOLD | Font.ITALIC), antiAlias, fractionalMetrics, boldItalicChars);
+    private int glyphHeight(GlyphPage.Glyph glyph) {
+        return this.distanceField ? Math.round(glyph.height * this.glyphScale) : glyph.height;
     }
     //endregion
 
@@ -145,29 +153,7 @@ final class SimpleFontRenderer implements FontRenderer {
 
         if (text == null) return 0.0F;
 
-        Minecraft mc = Minecraft.getInstance();
-        Novoline novoline = Novoline.getInstance();
-
-        if (mc.world != null) {
-            if (novoline.getModuleManager().getModule(Streamer.class).isEnabled()) {
-                Streamer streamer = novoline.getModuleManager().getModule(Streamer.class);
-
-                for (String name : streamer.name_data) {
-                    if (!name.isEmpty()) {
-                        if (text.toString().contains(name)) {
-                            if (name.equalsIgnoreCase(mc.player.getName())) {
-                                if (streamer.isChangeYourName().get()) {
-                                    text = text.toString().replace(name, streamer.getYourName().get().replace("&", "\u00A7"));
-                                }
-
-                            } else if (streamer.isHideOthers().get()) {
-                                text = text.toString().replace(name, "Player");
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        text = Novoline.getInstance().getModuleManager().getModule(Streamer.class).replaceNames(text.toString());
 
         if (color == 0x20FFFFFF) color = 0xFFFFFF;
         if ((color & 0xFC000000) == 0) color |= 0xFF000000;
@@ -177,9 +163,12 @@ final class SimpleFontRenderer implements FontRenderer {
             color = (color & 0xFCFCFC) >> 2 | color & 0xFF000000;
         }
 
-        CharData[] charData = this.charData;
-        float alpha = (color >> 24 & 0xFF) / 255.0F;
-        final boolean randomCase = false;
+        final TextLayout layout = TextLayoutCache.get(this, text.toString());
+        int red = color >> 16 & 0xFF;
+        int green = color >> 8 & 0xFF;
+        int blue = color & 0xFF;
+        int alpha = color >> 24 & 0xFF;
+        byte currentColor = TextLayout.COLOR_BASE;
 
         x *= 2.0D;
         y = (y - 3.0D) * 2.0D;
@@ -189,20 +178,108 @@ final class SimpleFontRenderer implements FontRenderer {
         GlStateManager.scale(0.5D, 0.5D, 0.5D);
         GlStateManager.enableBlend();
         GlStateManager.blendFunc(770, 771);
-        GL11.glColor4f((color >> 16 & 0xFF) / 255.0F, (color >> 8 & 0xFF) / 255.0F, (color & 0xFF) / 255.0F, alpha);
-        GlStateManager.color((color >> 16 & 0xFF) / 255.0F, (color >> 8 & 0xFF) / 255.0F, (color & 0xFF) / 255.0F, alpha);
         GlStateManager.enableTexture2D();
-        GlStateManager.bindTexture(texturePlain.getGlTextureId());
 
-        GL11.glBindTexture(GL_TEXTURE_2D, texturePlain.getGlTextureId());
-        GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        final GlyphBatch batch = GlyphBatch.INSTANCE;
+        final int program = this.distanceField ? DistanceFieldShader.program() : 0;
+        // without the shader the distance field is cut at the outline, which is still better than a blurred bitmap
+        final boolean alphaTest = this.distanceField && program == 0;
+
+        if (alphaTest) {
+            GlStateManager.enableAlpha();
+            GlStateManager.alphaFunc(GL11.GL_GREATER, 0.5F);
+        }
+
+        batch.program(program);
+
+        for (int i = 0; i < layout.length; i++) {
+            final char character = layout.chars[i];
+            final byte style = layout.styles[i];
+            final byte glyphColor = layout.colors[i];
 
-        boolean underline = false;
-        boolean strikethrough = false;
-        boolean italic = false;
-        boolean bold = false;
+            if (glyphColor != currentColor) {
+                currentColor = glyphColor;
 
-        for (int i = 0, size = text.length(); i < size; i++) {
+                if (glyphColor >= 0) {
+                    int colorCode = COLOR_CODES[shadow ? glyphColor + 16 : glyphColor];
+                    red = colorCode >> 16 & 0xFF;
+                    green = colorCode >> 8 & 0xFF;
+                    blue = colorCode & 0xFF;
+                    alpha = 255;
+                } else {
+                    red = color >> 16 & 0xFF;
+                    green = color >> 8 & 0xFF;
+                    blue = color & 0xFF;
+                    alpha = glyphColor == TextLayout.COLOR_BASE_OPAQUE ? 255 : color >> 24 & 0xFF;
+                }
+            }
+
+            final int styleIndex = style & (TextLayout.STYLE_BOLD | TextLayout.STYLE_ITALIC);
+            final GlyphPage.Glyph data = glyph(styleIndex, character);
+            final int texture = data.page.textureId();
+
+            // glyphs of a page that is still being rasterized are skipped for this frame
+            if (texture != -1) {
+                final float padding = data.page.padding() * this.glyphScale;
+
+                batch.quad(texture, (float) x - padding, (float) y - padding,
+                        data.width * this.glyphScale + padding * 2.0F, data.height * this.glyphScale + padding * 2.0F,
+                        data.u, data.v, data.u2, data.v2, red, green, blue, alpha);
+            }
+
+            final int width = glyphWidth(data);
+            final int height = glyphHeight(data);
+
+            if ((style & TextLayout.STYLE_STRIKETHROUGH) != 0) {
+                batch.line(x,
+                        y + height / 2.0F,
+                        x + width - 8.0D,
+                        y + height / 2.0F,
+                        red, green, blue, alpha);
+            }
+
+            if ((style & TextLayout.STYLE_UNDERLINE) != 0) {
+                batch.line(x,
+                        y + height - 2.0D,
+                        x + width - 8.0D,
+                        y + height - 2.0D,
+                        red, green, blue, alpha);
+            }
+
+            x += width - (character == ' ' ? 8 : 9);
+        }
+
+        batch.flush();
+
+        if (alphaTest) {
+            GlStateManager.alphaFunc(GL11.GL_GREATER, 0.1F);
+        }
+
+        GL11.glPopMatrix();
+        //endregion
+
+        return (float) x / 2.0F;
+    }
+
+    /**
+     * Parses the formatting codes of the given text. Also measures the text the same way
+     * stringWidth always did, which keeps the colour code quirk of not resetting the bold/italic
+     * glyph widths.
+     */
+    @SuppressWarnings("OverlyComplexMethod")
+    TextLayout layout(String text) {
+        final int size = text.length();
+        final char[] chars = new char[size];
+        final byte[] styles = new byte[size];
+        final byte[] colors = new byte[size];
+        int length = 0;
+
+        byte style = 0;
+        byte color = TextLayout.COLOR_BASE;
+        int widthStyle = 0;
+        int width = 0;
+
+        for (int i = 0; i < size; i++) {
             char character = text.charAt(i);
 
             if (character == COLOR_PREFIX && i + 1 < size) {
@@ -210,95 +287,37 @@ final class SimpleFontRenderer implements FontRenderer {
                 int colorIndex = COLORS.indexOf(text.charAt(i + 1));
 
                 if (colorIndex < 16) {
-                    bold = false;
-                    italic = false;
-                    underline = false;
-                    strikethrough = false;
-                    GlStateManager.bindTexture(texturePlain.getGlTextureId());
-                    charData = this.charData;
-
-                    if (colorIndex < 0) colorIndex = 15;
-                    if (shadow) colorIndex += 16;
-
-                    int colorCode = COLOR_CODES[colorIndex];
-                    GlStateManager.color(
-                            (colorCode >> 16 & 0xFF) / 255.0F,
-                            (colorCode >> 8 & 0xFF) / 255.0F,
-                            (colorCode & 0xFF) / 255.0F,
-                            255);
+                    style = 0;
+                    color = (byte) (colorIndex < 0 ? 15 : colorIndex);
                 } else if (colorIndex == 17) {
-                    bold = true;
-
-                    if (italic) {
-                        GlStateManager.bindTexture(textureItalicBold.getGlTextureId());
-                        charData = boldItalicChars;
-                    } else {
-                        GlStateManager.bindTexture(textureBold.getGlTextureId());
-                        charData = boldChars;
-                    }
+                    style |= TextLayout.STYLE_BOLD;
+                    widthStyle = style & (TextLayout.STYLE_BOLD | TextLayout.STYLE_ITALIC);
                 } else if (colorIndex == 18) {
-                    strikethrough = true;
+                    style |= TextLayout.STYLE_STRIKETHROUGH;
                 } else if (colorIndex == 19) {
-                    underline = true;
+                    style |= TextLayout.STYLE_UNDERLINE;
                 } else if (colorIndex == 20) {
-                    italic = true;
-
-                    if (bold) {
-                        GlStateManager.bindTexture(textureItalicBold.getGlTextureId());
-                        charData = boldItalicChars;
-                    } else {
-                        GlStateManager.bindTexture(textureItalic.getGlTextureId());
-                        charData = italicChars;
-                    }
+                    style |= TextLayout.STYLE_ITALIC;
+                    widthStyle = style & (TextLayout.STYLE_BOLD | TextLayout.STYLE_ITALIC);
                 } else if (colorIndex == 21) {
-                    bold = false;
-                    italic = false;
-                    underline = false;
-                    strikethrough = false;
-
-                    GlStateManager.color(
-                            (color >> 16 & 0xFF) / 255.0F,
-                            (color >> 8 & 0xFF) / 255.0F,
-                            (color & 0xFF) / 255.0F,
-                            255);
-                    GlStateManager.bindTexture(texturePlain.getGlTextureId());
-
-                    charData = this.charData;
+                    style = 0;
+                    color = TextLayout.COLOR_BASE_OPAQUE;
+                    widthStyle = 0;
                 }
 
                 //noinspection AssignmentToForLoopParameter
                 i++;
-            } else if (character < charData.length) {
-                GL11.glBegin(GL11.GL_TRIANGLES);
-                drawChar(charData, character, (float) x, (float) y);
-                GL11.glEnd();
-
-                if (strikethrough) {
-                    drawLine(x,
-                            y + charData[character].height / 2.0F,
-                            x + charData[character].width - 8.0D,
-                            y + charData[character].height / 2.0F,
-                            1.0F);
-                }
-
-                if (underline) {
-                    drawLine(x,
-                            y + charData[character].height - 2.0D,
-                            x + charData[character].width - 8.0D,
-                            y + charData[character].height - 2.0D,
-                            1.0F);
-                }
+            } else {
+                chars[length] = character;
+                styles[length] = style;
+                colors[length] = color;
+                length++;
 
-                x += charData[character].width - (character == ' ' ? 8 : 9);
+                width += glyphWidth(glyph(widthStyle, character)) - (character == ' ' ? 8 : 9);
             }
         }
 
-        GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
-        GL11.glHint(GL11.GL_POLYGON_SMOOTH_HINT, GL11.GL_DONT_CARE);
-        GL11.glPopMatrix();
-        //endregion
-
-        return (float) x / 2.0F;
+        return new TextLayout(chars, styles, colors, length, width);
     }
 
 
@@ -350,75 +369,14 @@ final class SimpleFontRenderer implements FontRenderer {
     public int stringWidth(CharSequence text) {
         if (text == null) return 0;
 
-        Minecraft mc = Minecraft.getInstance();
-        Novoline novoline = Novoline.getInstance();
-
-        if (mc.world != null) {
-            if (novoline.getModuleManager().getModule(Streamer.class).isEnabled()) {
-                Streamer streamer = novoline.getModuleManager().getModule(Streamer.class);
-
-                for (String name : streamer.name_data) {
-                    if (!name.isEmpty()) {
-                        if (text.toString().contains(name)) {
-                            if (name.equalsIgnoreCase(mc.player.getName())) {
-                                if (streamer.isChangeYourName().get()) {
-                                    text = text.toString().replace(name, streamer.getYourName().get().replace("&", "\u00A7"));
-                                }
-
-                            } else if (streamer.isHideOthers().get()) {
-                                text = text.toString().replace(name, "Player");
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        int width = 0;
-        CharData[] currentData = charData;
-        boolean bold = false;
-        boolean italic = false;
-
-        for (int i = 0, size = text.length(); i < size; i++) {
-            char character = text.charAt(i);
-
-            if (character == COLOR_PREFIX && i + 1 < size) {
-                int colorIndex = COLORS.indexOf(text.charAt(i + 1));
-
-                if (colorIndex < 16) { // color
-                    bold = false;
-                    italic = false;
-                } else if (colorIndex == 17) { // bold
-                    bold = true;
-                    if (italic) currentData = boldItalicChars;
-                    else currentData = boldChars;
-                } else if (colorIndex == 20) { // italic
-                    italic = true;
-                    if (bold) currentData = boldItalicChars;
-                    else currentData = italicChars;
-                } else if (colorIndex == 21) { // reset
-                    bold = false;
-                    italic = false;
-                    currentData = charData;
-                }
-
-                //noinspection AssignmentToForLoopParameter
-                i++;
-            } else if (character < currentData.length) {
-                width += currentData[character].width - (character == ' ' ? 8 : 9);
-            }
-        }
+        text = Novoline.getInstance().getModuleManager().getModule(Streamer.class).replaceNames(text.toString());
 
-        return width / 2;
+        return TextLayoutCache.get(this, text.toString()).width / 2;
     }
 
     @Override
     public float charWidth(char s){
-        return (charData[s].width - 8) / 2;
-    }
-
-    public CharData[] getCharData() {
-        return charData;
+        return (glyphWidth(glyph(0, s)) - 8) / 2;
     }
 
     //region shit
@@ -447,54 +405,6 @@ final class SimpleFontRenderer implements FontRenderer {
         return colorCodes;
     }
 
-    private static class CharData {
-
-        private int width;
-        private int height;
-        private int storedX;
-        private int storedY;
-
-        private CharData() {
-        }
-    }
-
-    //endregion
-    //region rendering
-    private static void drawChar(CharData[] chars, char c, float x, float y) {
-        drawQuad(x, y, chars[c].width, chars[c].height, chars[c].storedX, chars[c].storedY, chars[c].width, chars[c].height);
-    }
-
-    private static void drawQuad(float x, float y, float width, float height, float srcX, float srcY, float srcWidth, float srcHeight) {
-        float renderSRCX = srcX / IMG_SIZE;
-        float renderSRCY = srcY / IMG_SIZE;
-        float renderSRCWidth = srcWidth / IMG_SIZE;
-        float renderSRCHeight = srcHeight / IMG_SIZE;
-
-
-        GL11.glTexCoord2f(renderSRCX + renderSRCWidth, renderSRCY);
-        GL11.glVertex2d(x + width, y);
-        GL11.glTexCoord2f(renderSRCX, renderSRCY);
-        GL11.glVertex2d(x, y);
-        GL11.glTexCoord2f(renderSRCX, renderSRCY + renderSRCHeight);
-        GL11.glVertex2d(x, y + height);
-        GL11.glTexCoord2f(renderSRCX, renderSRCY + renderSRCHeight);
-        GL11.glVertex2d(x, y + height);
-        GL11.glTexCoord2f(renderSRCX + renderSRCWidth, renderSRCY + renderSRCHeight);
-        GL11.glVertex2d(x + width, y + height);
-        GL11.glTexCoord2f(renderSRCX + renderSRCWidth, renderSRCY);
-        GL11.glVertex2d(x + width, y);
-    }
-
-    private static void drawLine(double x, double y, double x1, double y1, float width) {
-        GL11.glDisable(GL_TEXTURE_2D);
-        GL11.glLineWidth(width);
-        GL11.glBegin(1);
-        GL11.glVertex2d(x, y);
-        GL11.glVertex2d(x1, y1);
-        GL11.glEnd();
-        GL11.glEnable(GL_TEXTURE_2D);
-    }
-
     //endregion
     //region lombok
     @Override
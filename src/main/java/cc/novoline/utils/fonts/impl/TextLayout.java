@@ -0,0 +1,47 @@
+package cc.novoline.utils.fonts.impl;
+
+/**
+ * A string with its formatting codes already parsed: one entry per drawable glyph holding the
+ * character, the style it is drawn in and the colour code it is drawn with.
+ *
+ * @see TextLayoutCache
+ */
+final class TextLayout {
+
+    static final byte STYLE_BOLD = 1;
+    static final byte STYLE_ITALIC = 2;
+    static final byte STYLE_UNDERLINE = 4;
+    static final byte STYLE_STRIKETHROUGH = 8;
+
+    /**
+     * Colour of the glyph is the colour passed to drawString.
+     */
+    static final byte COLOR_BASE = -1;
+
+    /**
+     * Colour of the glyph is the colour passed to drawString, but fully opaque (after a reset code).
+     */
+    static final byte COLOR_BASE_OPAQUE = -2;
+
+    final char[] chars;
+    final byte[] styles;
+    final byte[] colors;
+    final int length;
+    final int width;
+
+    TextLayout(char[] chars, byte[] styles, byte[] colors, int length, int width) {
+        this.chars = chars;
+        this.styles = styles;
+        this.colors = colors;
+        this.length = length;
+        this.width = width;
+    }
+
+    /**
+     * @return Rough amount of heap this layout holds on to, used for the cache limit.
+     */
+    int estimateSize() {
+        return 64 + this.chars.length * 4;
+    }
+
+}
@@ -0,0 +1,116 @@
+package cc.novoline.utils.fonts.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of parsed strings shared by all custom font renderers, so HUD strings that are drawn every
+ * frame (module names, formatted labels) are parsed once instead of on every draw and width query.
+ * The cache is bounded by the estimated size of the layouts it holds.
+ */
+public final class TextLayoutCache {
+
+    private static final long MAX_BYTES = 2L * 1024 * 1024;
+
+    private static final Map<Key, TextLayout> LAYOUTS = new LinkedHashMap<>(256, 0.75F, true);
+    private static final Key LOOKUP = new Key();
+
+    private static long bytes;
+    private static long hits;
+    private static long misses;
+
+    private TextLayoutCache() {
+    }
+
+    /**
+     * Gets the layout of the given text for the given font, parsing it on a miss.
+     */
+    static synchronized TextLayout get(SimpleFontRenderer font, String text) {
+        LOOKUP.font = font;
+        LOOKUP.text = text;
+
+        TextLayout layout = LAYOUTS.get(LOOKUP);
+        LOOKUP.text = null;
+
+        if (layout != null) {
+            hits++;
+            return layout;
+        }
+
+        misses++;
+        layout = font.layout(text);
+
+        final Key key = new Key();
+        key.font = font;
+        key.text = text;
+
+        LAYOUTS.put(key, layout);
+        bytes += layout.estimateSize() + text.length() * 2L;
+
+        if (bytes > MAX_BYTES) {
+            evict();
+        }
+
+        return layout;
+    }
+
+    private static void evict() {
+        final Iterator<Map.Entry<Key, TextLayout>> iterator = LAYOUTS.entrySet().iterator();
+
+        while (bytes > MAX_BYTES * 3 / 4 && iterator.hasNext()) {
+            final Map.Entry<Key, TextLayout> entry = iterator.next();
+
+            bytes -= entry.getValue().estimateSize() + entry.getKey().text.length() * 2L;
+            iterator.remove();
+        }
+    }
+
+    public static synchronized void clear() {
+        LAYOUTS.clear();
+        bytes = 0;
+    }
+
+    public static synchronized void resetCounters() {
+        hits = 0;
+        misses = 0;
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    public static synchronized int getSize() {
+        return LAYOUTS.size();
+    }
+
+    public static synchronized long getBytes() {
+        return bytes;
+    }
+
+    private static final class Key {
+
+        private SimpleFontRenderer font;
+        private String text;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key key = (Key) o;
+            return this.font == key.font && this.text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.font) + this.text.hashCode();
+        }
+
+    }
+
+}
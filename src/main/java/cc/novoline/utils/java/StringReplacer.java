@@ -0,0 +1,227 @@
+package cc.novoline.utils.java;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replaces a fixed set of substrings in a single pass over the text, using an Aho-Corasick automaton.
+ * When several patterns overlap the leftmost one wins, and the longest one of those starting at the same index.
+ * <p>
+ * Instances are immutable and can be shared between threads. Text without any match is returned as is,
+ * without allocating anything.
+ */
+public final class StringReplacer {
+
+    private static final StringReplacer EMPTY = new StringReplacer(new char[][]{{}}, new int[][]{{}}, new int[]{0},
+            new int[]{-1}, new int[]{-1}, new int[0], new String[0]);
+
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+    private final int[] terminal;
+    private final int[] dictionary;
+    private final int[] lengths;
+    private final String[] replacements;
+
+    private StringReplacer(char[][] keys, int[][] next, int[] fail, int[] terminal, int[] dictionary,
+                           int[] lengths, String[] replacements) {
+        this.keys = keys;
+        this.next = next;
+        this.fail = fail;
+        this.terminal = terminal;
+        this.dictionary = dictionary;
+        this.lengths = lengths;
+        this.replacements = replacements;
+    }
+
+    /**
+     * Compiles the given pattern to replacement map. Empty patterns are ignored.
+     *
+     * @param replacements map of pattern to its replacement
+     * @return replacer for the given patterns
+     */
+    public static @NotNull StringReplacer compile(@NotNull Map<String, String> replacements) {
+        final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        final List<Integer> terminals = new ArrayList<>();
+        final List<String> patterns = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminals.add(-1);
+
+        for (Map.Entry<String, String> entry : replacements.entrySet()) {
+            final String pattern = entry.getKey();
+            if (pattern.isEmpty()) continue;
+
+            int node = 0;
+
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer child = children.get(node).get(pattern.charAt(i));
+
+                if (child == null) {
+                    child = children.size();
+                    children.add(new TreeMap<>());
+                    terminals.add(-1);
+                    children.get(node).put(pattern.charAt(i), child);
+                }
+
+                node = child;
+            }
+
+            if (terminals.get(node) < 0) {
+                terminals.set(node, patterns.size());
+                patterns.add(pattern);
+                values.add(entry.getValue());
+            }
+        }
+
+        if (patterns.isEmpty()) return EMPTY;
+
+        final int size = children.size();
+        final char[][] keys = new char[size][];
+        final int[][] next = new int[size][];
+        final int[] terminal = new int[size];
+
+        for (int node = 0; node < size; node++) {
+            final TreeMap<Character, Integer> edges = children.get(node);
+            keys[node] = new char[edges.size()];
+            next[node] = new int[edges.size()];
+            terminal[node] = terminals.get(node);
+
+            int i = 0;
+
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                keys[node][i] = edge.getKey();
+                next[node][i++] = edge.getValue();
+            }
+        }
+
+        final int[] fail = new int[size];
+        final int[] dictionary = new int[size];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        dictionary[0] = -1;
+
+        for (int child : next[0]) {
+            dictionary[child] = -1;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            final int node = queue.poll();
+
+            for (int i = 0; i < keys[node].length; i++) {
+                final char c = keys[node][i];
+                final int child = next[node][i];
+                int state = fail[node];
+                int target;
+
+                while ((target = edge(keys, next, state, c)) < 0 && state != 0) {
+                    state = fail[state];
+                }
+
+                fail[child] = target < 0 ? 0 : target;
+                dictionary[child] = terminal[fail[child]] >= 0 ? fail[child] : dictionary[fail[child]];
+                queue.add(child);
+            }
+        }
+
+        final int[] lengths = new int[patterns.size()];
+
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = patterns.get(i).length();
+        }
+
+        return new StringReplacer(keys, next, fail, terminal, dictionary, lengths, values.toArray(new String[0]));
+    }
+
+    public static @NotNull StringReplacer empty() {
+        return EMPTY;
+    }
+
+    public boolean isEmpty() {
+        return this.lengths.length == 0;
+    }
+
+    /**
+     * Replaces every occurrence of the compiled patterns in the given text.
+     *
+     * @param text text to replace the patterns in
+     * @return the text with all patterns replaced, or the given instance if nothing matched
+     */
+    public @NotNull String replace(@NotNull String text) {
+        if (isEmpty()) return text;
+
+        int[] matches = null;
+        int count = 0;
+        int state = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            final char c = text.charAt(i);
+            int target;
+
+            while ((target = edge(this.keys, this.next, state, c)) < 0 && state != 0) {
+                state = this.fail[state];
+            }
+
+            state = target < 0 ? 0 : target;
+
+            for (int node = this.terminal[state] >= 0 ? state : this.dictionary[state]; node >= 0; node = this.dictionary[node]) {
+                final int pattern = this.terminal[node];
+
+                if (matches == null) {
+                    matches = new int[8];
+                } else if (count * 2 == matches.length) {
+                    matches = Arrays.copyOf(matches, matches.length * 2);
+                }
+
+                matches[count * 2] = i + 1 - this.lengths[pattern];
+                matches[count * 2 + 1] = pattern;
+                count++;
+            }
+        }
+
+        return matches == null ? text : apply(text, matches, count);
+    }
+
+    private String apply(String text, int[] matches, int count) {
+        final StringBuilder builder = new StringBuilder(text.length() + 16);
+        int position = 0;
+
+        while (true) {
+            int best = -1;
+
+            // leftmost match starting at or after the current position, the longest one on ties
+            for (int i = 0; i < count; i++) {
+                final int start = matches[i * 2];
+                if (start < position) continue;
+
+                if (best < 0 || start < matches[best * 2]
+                        || start == matches[best * 2] && this.lengths[matches[i * 2 + 1]] > this.lengths[matches[best * 2 + 1]]) {
+                    best = i;
+                }
+            }
+
+            if (best < 0) break;
+
+            final int start = matches[best * 2];
+            final int pattern = matches[best * 2 + 1];
+
+            builder.append(text, position, start).append(this.replacements[pattern]);
+            position = start + this.lengths[pattern];
+        }
+
+        return builder.append(text, position, text.length()).toString();
+    }
+
+    private static int edge(char[][] keys, int[][] next, int state, char c) {
+        final int index = Arrays.binarySearch(keys[state], c);
+        return index < 0 ? -1 : next[state][index];
+    }
+
+}
@@ -14,21 +14,7 @@ public class GLSLSandboxShader {
     private final int resolutionUniform;
 
     public GLSLSandboxShader(String fragmentShaderLocation) throws IOException {
-        int program = glCreateProgram();
-
-        glAttachShader(program, createShader(GLSLSandboxShader.class.getResourceAsStream("/assets/minecraft/shaders/program/novoline_vector.vsh"), GL_VERTEX_SHADER));
-        glAttachShader(program, createShader(GLSLSandboxShader.class.getResourceAsStream(fragmentShaderLocation), GL_FRAGMENT_SHADER));
-
-        glLinkProgram(program);
-
-        int linked = glGetProgrami(program, GL_LINK_STATUS);
-
-        // If linking failed
-        if (linked == 0) {
-            System.err.println(glGetProgramInfoLog(program, glGetProgrami(program, GL_INFO_LOG_LENGTH)));
-
-            throw new IllegalStateException("link");
-        }
+        int program = createProgram("/assets/minecraft/shaders/program/novoline_vector.vsh", fragmentShaderLocation);
 
         this.programId = program;
 
@@ -50,10 +36,42 @@ public class GLSLSandboxShader {
         glUniform1f(this.timeUniform, time);
     }
 
-    private int createShader(InputStream inputStream, int shaderType) throws IOException {
+    /**
+     * Compiles and links a program from two shader resources.
+     *
+     * @throws IllegalStateException if a shader doesn't compile or the program doesn't link, with the info log
+     */
+    public static int createProgram(String vertexShaderLocation, String fragmentShaderLocation) throws IOException {
+        int program = glCreateProgram();
+
+        glAttachShader(program, createShader(vertexShaderLocation, GL_VERTEX_SHADER));
+        glAttachShader(program, createShader(fragmentShaderLocation, GL_FRAGMENT_SHADER));
+
+        glLinkProgram(program);
+
+        int linked = glGetProgrami(program, GL_LINK_STATUS);
+
+        // If linking failed
+        if (linked == 0) {
+            String log = glGetProgramInfoLog(program, glGetProgrami(program, GL_INFO_LOG_LENGTH));
+            glDeleteProgram(program);
+
+            throw new IllegalStateException("link: " + log);
+        }
+
+        return program;
+    }
+
+    private static int createShader(String location, int shaderType) throws IOException {
         int shader = glCreateShader(shaderType);
 
-        glShaderSource(shader, readStreamToString(inputStream));
+        try (InputStream inputStream = GLSLSandboxShader.class.getResourceAsStream(location)) {
+            if (inputStream == null) {
+                throw new IOException("Couldn't find resource: " + location);
+            }
+
+            glShaderSource(shader, readStreamToString(inputStream));
+        }
 
         glCompileShader(shader);
 
@@ -61,15 +79,13 @@ public class GLSLSandboxShader {
 
         // If compilation failed
         if (compiled == 0) {
-            System.err.println(glGetShaderInfoLog(shader, glGetShaderi(shader, GL_INFO_LOG_LENGTH)));
-
-            throw new IllegalStateException("compile");
+            throw new IllegalStateException("compile " + location + ": " + glGetShaderInfoLog(shader, glGetShaderi(shader, GL_INFO_LOG_LENGTH)));
         }
 
         return shader;
     }
 
-    private String readStreamToString(InputStream inputStream) throws IOException {
+    private static String readStreamToString(InputStream inputStream) throws IOException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         byte[] buffer = new byte[512];
@@ -82,4 +98,4 @@ public class GLSLSandboxShader {
 
         return new String(out.toByteArray(), StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package net.minecraft.client;
 
 import cc.novoline.Novoline;
 import cc.novoline.events.EventManager;
+import cc.novoline.events.EventProfiler;
 import cc.novoline.events.events.KeyPressEvent;
 import cc.novoline.events.events.RightClickEvent;
 import cc.novoline.events.events.TickUpdateEvent;
@@ -187,7 +188,16 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
     private final List<IResourcePack> defaultResourcePacks = Lists.newArrayList();
     private final DefaultResourcePack mcDefaultResourcePack;
     private final MinecraftSessionService sessionService;
-    private final Queue<FutureTask<?>> scheduledTasks = Queues.newArrayDeque();
+    /**
+     * Tasks for the main thread, lock-free so the netty threads never contend with each other or the game loop
+     */
+    private final Queue<Runnable> scheduledTasks = Queues.newConcurrentLinkedQueue();
+
+    /**
+     * Marks the end of the batch being drained, tasks added while draining wait for the next frame
+     */
+    private static final Runnable END_OF_BATCH = () -> {
+    };
     private final long field_175615_aJ = 0L;
     private final Thread mcThread = Thread.currentThread();
     public Session session;
@@ -1050,10 +1060,10 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
 
         mcProfiler.startSection("scheduledExecutables");
 
-        synchronized (scheduledTasks) {
-            while (!scheduledTasks.isEmpty()) {
-                Util.func_181617_a((FutureTask) scheduledTasks.poll(), getLogger());
-            }
+        scheduledTasks.add(END_OF_BATCH);
+
+        for (Runnable task = scheduledTasks.poll(); task != END_OF_BATCH; task = scheduledTasks.poll()) {
+            runScheduledTask(task);
         }
 
         mcProfiler.endSection();
@@ -1103,6 +1113,10 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
             this.prevFrameTime = System.nanoTime();
         }
 
+        if (gameSettings.showDebugInfo && !gameSettings.hideGUI && EventProfiler.isEnabled()) {
+            displayEventProfilerInfo();
+        }
+
         guiAchievement.updateAchievementWindow();
         framebufferMc.unbindFramebuffer();
         GlStateManager.popMatrix();
@@ -1473,6 +1487,41 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
         }
     }
 
+    /**
+     * Draws the most expensive event listeners recorded by the EventProfiler, left of the profiler chart.
+     */
+    private void displayEventProfilerInfo() {
+        final List<EventProfiler.Entry> entries = EventProfiler.getEntries();
+        final int rows = Math.min(entries.size(), 16);
+        GlStateManager.clear(256);
+        GlStateManager.matrixMode(5889);
+        GlStateManager.enableColorMaterial();
+        GlStateManager.loadIdentity();
+        GlStateManager.ortho(0.0D, displayWidth, displayHeight, 0.0D, 1000.0D, 3000.0D);
+        GlStateManager.matrixMode(5888);
+        GlStateManager.loadIdentity();
+        GlStateManager.translate(0.0F, 0.0F, -2000.0F);
+        final int i = 160;
+        final int right = displayWidth - i - 10 - (int) ((float) i * 1.1F) - 10;
+        final int left = right - 320;
+        final int top = displayHeight - i * 2 - (int) ((float) i * 0.6F) - 16;
+        Gui.drawRect(left - 2, top - 2, right + 2, top + (rows + 1) * 9 + 2, 0xC8000000);
+        GlStateManager.enableTexture2D();
+
+        final int l2 = 16777215;
+        fontRendererObj.drawStringWithShadow("Event listeners", (float) left, (float) top, l2);
+        String s = "calls / total ms / max \u00b5s";
+        fontRendererObj.drawStringWithShadow(s, (float) (right - fontRendererObj.getStringWidth(s)), (float) top, 0xAAAAAA);
+
+        for (int k = 0; k < rows; ++k) {
+            final EventProfiler.Entry entry = entries.get(k);
+            final int y = top + (k + 1) * 9;
+            fontRendererObj.drawStringWithShadow(entry.getListenerName() + " (" + entry.getEventName() + ")", (float) left, (float) y, l2);
+            s = String.format("%d / %.2f / %.1f", entry.getCalls(), entry.getTotalNanos() / 1_000_000.0D, entry.getMaxNanos() / 1_000.0D);
+            fontRendererObj.drawStringWithShadow(s, (float) (right - fontRendererObj.getStringWidth(s)), (float) y, l2);
+        }
+    }
+
     /**
      * Called to resize the current screen.
      */
@@ -2028,6 +2077,13 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
             myNetworkManager.processReceivedPackets();
         }
 
+        NetHandlerPlayClient nethandlerplayclient = getNetHandler();
+
+        if (nethandlerplayclient != null) {
+            // the clicks and movement packets of this tick are written by now
+            nethandlerplayclient.getNetworkManager().flushOutbound();
+        }
+
         mcProfiler.endSection();
         this.systemTime =
 
@@ -2711,11 +2767,8 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
 
         if (!isCallingFromMinecraftThread()) {
             ListenableFutureTask<V> listenablefuturetask = ListenableFutureTask.create(callableToSchedule);
-
-            synchronized (scheduledTasks) {
-                scheduledTasks.add(listenablefuturetask);
-                return listenablefuturetask;
-            }
+            scheduledTasks.add(listenablefuturetask);
+            return listenablefuturetask;
         } else {
             try {
                 return Futures.immediateFuture(callableToSchedule.call());
@@ -2777,6 +2830,29 @@ public class Minecraft implements IThreadListener, IPlayerUsage {
         return addScheduledTask(Executors.callable(runnableToSchedule));
     }
 
+    @Override
+    public void scheduleTask(Runnable task) {
+        Validate.notNull(task);
+
+        if (isCallingFromMinecraftThread()) {
+            runScheduledTask(task);
+        } else {
+            scheduledTasks.add(task);
+        }
+    }
+
+    private void runScheduledTask(Runnable task) {
+        if (task instanceof FutureTask) {
+            Util.func_181617_a((FutureTask<?>) task, getLogger());
+        } else {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                getLogger().fatal("Error executing task", throwable);
+            }
+        }
+    }
+
     public boolean func_181540_al() {
         return field_181541_X;
     }
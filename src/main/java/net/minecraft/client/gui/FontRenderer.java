@@ -1575,29 +1575,7 @@ public class FontRenderer implements IResourceManagerReloadListener {
         if (text == null) {
             return 0;
         } else {
-            Minecraft mc = Minecraft.getInstance();
-            Novoline novoline = Novoline.getInstance();
-
-            if (mc.world != null) {
-                if (novoline.getModuleManager().getModule(Streamer.class).isEnabled()) {
-                    Streamer streamer = novoline.getModuleManager().getModule(Streamer.class);
-
-                    for (String name : streamer.name_data) {
-                        if (!name.isEmpty()) {
-                            if (text.contains(name)) {
-                                if (name.equalsIgnoreCase(mc.player.getName())) {
-                                    if (streamer.isChangeYourName().get()) {
-                                        text = text.replace(name, streamer.getYourName().get().replace("&", "\u00A7"));
-                                    }
-
-                                } else if (streamer.isHideOthers().get()) {
-                                    text = text.replace(name, "Player");
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            text = Novoline.getInstance().getModuleManager().getModule(Streamer.class).replaceNames(text);
             if (this.bidiFlag) {
                 text = this.bidiReorder(text);
             }
@@ -1629,29 +1607,7 @@ public class FontRenderer implements IResourceManagerReloadListener {
         if (text == null) {
             return 0;
         } else {
-            Minecraft mc = Minecraft.getInstance();
-            Novoline novoline = Novoline.getInstance();
-
-            if (mc.world != null) {
-                if (novoline.getModuleManager().getModule(Streamer.class).isEnabled()) {
-                    Streamer streamer = novoline.getModuleManager().getModule(Streamer.class);
-
-                    for (String name : streamer.name_data) {
-                        if (!name.isEmpty()) {
-                            if (text.contains(name)) {
-                                if (name.equalsIgnoreCase(mc.player.getName())) {
-                                    if (streamer.isChangeYourName().get()) {
-                                        text = text.replace(name, streamer.getYourName().get().replace("&", "\u00A7"));
-                                    }
-
-                                } else if (streamer.isHideOthers().get()) {
-                                    text = text.replace(name, "Player");
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            text = Novoline.getInstance().getModuleManager().getModule(Streamer.class).replaceNames(text);
 
             float f = 0.0F;
             boolean flag = false;
@@ -337,7 +337,9 @@ public class GuiIngame extends Gui {
             this.overlayPlayerList.renderPlayerList(i, scoreboard, scoreobjective1);
         }
 
-        EventManager.call(new Render2DEvent(scaledresolution, partialTicks));
+        final Render2DEvent render2DEvent = Render2DEvent.acquire(scaledresolution, partialTicks);
+        EventManager.call(render2DEvent);
+        render2DEvent.release();
         GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
         GlStateManager.disableLighting();
         GlStateManager.enableAlpha();
@@ -33,7 +33,7 @@ public class EffectRenderer {
      * Reference to the World object.
      */
     protected World worldObj;
-    private List[][] fxLayers = new List[4][];
+    private ParticleRing[][] fxLayers = new ParticleRing[4][];
     private List particleEmitters = Lists.newArrayList();
     private TextureManager renderer;
     /**
@@ -47,10 +47,10 @@ public class EffectRenderer {
         this.renderer = rendererIn;
 
         for (int i = 0; i < 4; ++i) {
-            this.fxLayers[i] = new List[2];
+            this.fxLayers[i] = new ParticleRing[2];
 
             for (int j = 0; j < 2; ++j) {
-                this.fxLayers[i][j] = Lists.newArrayList();
+                this.fxLayers[i][j] = new ParticleRing(4000);
             }
         }
 
@@ -133,10 +133,6 @@ public class EffectRenderer {
                 int i = effect.getFXLayer();
                 int j = effect.getAlpha() != 1.0F ? 0 : 1;
 
-                if (this.fxLayers[i][j].size() >= 4000) {
-                    this.fxLayers[i][j].remove(0);
-                }
-
                 if (!(effect instanceof Barrier) || !this.reuseBarrierParticle(effect, this.fxLayers[i][j])) {
                     this.fxLayers[i][j].add(effect);
                 }
@@ -169,19 +165,12 @@ public class EffectRenderer {
         }
     }
 
-    private void updateEffectAlphaLayer(List p_178925_1_) {
-        ArrayList arraylist = Lists.newArrayList();
-
+    private void updateEffectAlphaLayer(ParticleRing p_178925_1_) {
         for (int i = 0; i < p_178925_1_.size(); ++i) {
-            EntityFX entityfx = (EntityFX) p_178925_1_.get(i);
-            this.tickParticle(entityfx);
-
-            if (entityfx.isDead) {
-                arraylist.add(entityfx);
-            }
+            this.tickParticle(p_178925_1_.get(i));
         }
 
-        p_178925_1_.removeAll(arraylist);
+        p_178925_1_.removeDead();
     }
 
     private void tickParticle(final EntityFX p_178923_1_) {
@@ -243,7 +232,7 @@ public class EffectRenderer {
                     worldrenderer.begin(7, DefaultVertexFormats.PARTICLE_POSITION_TEX_COLOR_LMAP);
 
                     for (int l = 0; l < this.fxLayers[j][k].size(); ++l) {
-                        final EntityFX entityfx = (EntityFX) this.fxLayers[j][k].get(l);
+                        final EntityFX entityfx = this.fxLayers[j][k].get(l);
 
                         try {
                             entityfx.renderParticle(worldrenderer, entityIn, partialTicks, f, f4, f1, f2, f3);
@@ -275,14 +264,14 @@ public class EffectRenderer {
         float f5 = MathHelper.cos(entityIn.rotationPitch * 0.017453292F);
 
         for (int i = 0; i < 2; ++i) {
-            List list = this.fxLayers[3][i];
+            ParticleRing list = this.fxLayers[3][i];
 
             if (!list.isEmpty()) {
                 Tessellator tessellator = Tessellator.getInstance();
                 WorldRenderer worldrenderer = tessellator.getWorldRenderer();
 
                 for (int j = 0; j < list.size(); ++j) {
-                    EntityFX entityfx = (EntityFX) list.get(j);
+                    EntityFX entityfx = list.get(j);
                     entityfx.renderParticle(worldrenderer, entityIn, p_78872_2_, f1, f5, f2, f3, f4);
                 }
             }
@@ -402,8 +391,10 @@ public class EffectRenderer {
         return "" + i;
     }
 
-    private boolean reuseBarrierParticle(EntityFX p_reuseBarrierParticle_1_, List<EntityFX> p_reuseBarrierParticle_2_) {
-        for (EntityFX entityfx : p_reuseBarrierParticle_2_) {
+    private boolean reuseBarrierParticle(EntityFX p_reuseBarrierParticle_1_, ParticleRing p_reuseBarrierParticle_2_) {
+        for (int i = 0; i < p_reuseBarrierParticle_2_.size(); ++i) {
+            EntityFX entityfx = p_reuseBarrierParticle_2_.get(i);
+
             if (entityfx instanceof Barrier && p_reuseBarrierParticle_1_.posX == entityfx.posX && p_reuseBarrierParticle_1_.posY == entityfx.posY && p_reuseBarrierParticle_1_.posZ == entityfx.posZ) {
                 entityfx.particleAge = 0;
                 return true;
@@ -0,0 +1,101 @@
+package net.minecraft.client.particle;
+
+import java.util.Arrays;
+
+/**
+ * The particles of one layer, oldest first. Once it is full, adding a particle replaces the oldest one without moving
+ * any of the others.
+ */
+class ParticleRing {
+    private final EntityFX[] particles;
+    // Slot of the oldest particle
+    private int head;
+    private int size;
+
+    ParticleRing(int capacity) {
+        this.particles = new EntityFX[capacity];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public EntityFX get(int index) {
+        return this.particles[this.slot(index)];
+    }
+
+    public void add(EntityFX effect) {
+        if (this.size == this.particles.length) {
+            this.particles[this.head] = effect;
+            this.head = this.slot(1);
+        } else {
+            this.particles[this.slot(this.size)] = effect;
+            ++this.size;
+        }
+    }
+
+    public boolean contains(EntityFX effect) {
+        return this.indexOf(effect) != -1;
+    }
+
+    public boolean remove(EntityFX effect) {
+        int index = this.indexOf(effect);
+
+        if (index == -1) {
+            return false;
+        } else {
+            for (int i = index + 1; i < this.size; ++i) {
+                this.particles[this.slot(i - 1)] = this.particles[this.slot(i)];
+            }
+
+            this.particles[this.slot(--this.size)] = null;
+            return true;
+        }
+    }
+
+    /**
+     * Drops the dead particles in one pass, keeping the order of the others
+     */
+    public void removeDead() {
+        int kept = 0;
+
+        for (int i = 0; i < this.size; ++i) {
+            EntityFX entityfx = this.particles[this.slot(i)];
+
+            if (!entityfx.isDead) {
+                this.particles[this.slot(kept++)] = entityfx;
+            }
+        }
+
+        for (int i = kept; i < this.size; ++i) {
+            this.particles[this.slot(i)] = null;
+        }
+
+        this.size = kept;
+    }
+
+    public void clear() {
+        Arrays.fill(this.particles, null);
+        this.head = 0;
+        this.size = 0;
+    }
+
+    private int indexOf(EntityFX effect) {
+        for (int i = 0; i < this.size; ++i) {
+            if (this.particles[this.slot(i)] == effect) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int slot(int index) {
+        int i = this.head + index;
+        return i >= this.particles.length ? i - this.particles.length : i;
+    }
+}
@@ -27,6 +27,13 @@ public abstract class ChunkRenderContainer {
         GlStateManager.translate((float) ((double) blockpos.getX() - this.viewEntityX), (float) ((double) blockpos.getY() - this.viewEntityY), (float) ((double) blockpos.getZ() - this.viewEntityZ));
     }
 
+    /**
+     * Translates to a position relative to the view entity, like {@link #preRenderChunk(RenderChunk)} does for a chunk
+     */
+    protected void preRenderRegion(BlockPos origin) {
+        GlStateManager.translate((float) ((double) origin.getX() - this.viewEntityX), (float) ((double) origin.getY() - this.viewEntityY), (float) ((double) origin.getZ() - this.viewEntityZ));
+    }
+
     public void addRenderChunk(RenderChunk renderChunkIn, EnumWorldBlockLayer layer) {
         this.renderChunks.add(renderChunkIn);
     }
@@ -0,0 +1,239 @@
+package net.minecraft.client.renderer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.client.renderer.chunk.RenderChunk;
+import net.minecraft.util.BlockPos;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.MathHelper;
+import net.optifine.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The render chunks that can be seen from the camera, found by flooding from the camera chunk through the faces each
+ * compiled chunk can be seen through.
+ * <p>
+ * The flood fill doesn't depend on where the camera looks, so it is kept until the camera moves or a chunk compiles
+ * with a different visibility, and every frame only has to cull it against the frustum. It is redone on a background
+ * thread while the last one stays in use. Only the first one and the one after the camera jumped are done on the
+ * render thread.
+ */
+public class ChunkVisibilityGraph {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("Chunk Visibility").setDaemon(true).build());
+
+    private final ViewFrustum viewFrustum;
+    private final int renderDistanceChunks;
+    private final int renderDistance;
+    private final int renderDistanceSq;
+    private final AtomicInteger visibilityVersion = new AtomicInteger();
+    private int layoutVersion;
+    private Graph graph;
+    private CompletableFuture<Graph> pending;
+
+    public ChunkVisibilityGraph(ViewFrustum viewFrustumIn, int renderDistanceChunksIn) {
+        this.viewFrustum = viewFrustumIn;
+        this.renderDistanceChunks = renderDistanceChunksIn;
+        this.renderDistance = renderDistanceChunksIn * 16;
+        this.renderDistanceSq = this.renderDistance * this.renderDistance;
+    }
+
+    /**
+     * Called from any thread when a chunk compiled with other visible faces than before
+     */
+    public void markVisibilityChanged() {
+        this.visibilityVersion.incrementAndGet();
+    }
+
+    /**
+     * Called when the view frustum moved its render chunks
+     */
+    public void markChunksMoved() {
+        ++this.layoutVersion;
+    }
+
+    /**
+     * Takes a finished background flood fill and starts another one if the inputs changed since.
+     *
+     * @param originChunk      the chunk the camera is in, null if the camera is above or below the world
+     * @param renderChunksMany false to flood through every face, like when spectating inside a block
+     * @return True if the chunks changed
+     */
+    public boolean update(RenderChunk originChunk, BlockPos cameraPos, boolean renderChunksMany) {
+        boolean changed = false;
+
+        if (this.pending != null && this.pending.isDone()) {
+            try {
+                this.graph = this.pending.join();
+                changed = true;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Couldn't find the visible chunks", e);
+            }
+
+            this.pending = null;
+        }
+
+        BlockPos originPos = originChunk != null ? originChunk.getPosition() : null;
+        boolean fogOff = Config.isFogOff();
+        int version = this.visibilityVersion.get();
+
+        if (this.graph == null || !this.graph.isNear(originPos, cameraPos)) {
+            if (this.pending != null) {
+                this.pending.cancel(false);
+                this.pending = null;
+            }
+
+            this.graph = this.build(originChunk, originPos, cameraPos, renderChunksMany, fogOff, this.layoutVersion, version);
+            return true;
+        }
+
+        if (this.pending == null && !this.graph.isCurrent(originChunk, originPos, cameraPos, renderChunksMany, fogOff, this.layoutVersion, version)) {
+            final int layout = this.layoutVersion;
+            this.pending = CompletableFuture.supplyAsync(() -> this.build(originChunk, originPos, cameraPos, renderChunksMany, fogOff, layout, version), EXECUTOR);
+        }
+
+        return changed;
+    }
+
+    /**
+     * @return The chunks in the order they were reached, nearest first
+     */
+    public List<RenderGlobal.ContainerLocalRenderInformation> getChunks() {
+        return this.graph.chunks;
+    }
+
+    /**
+     * @return True if the chunk was moved since the flood fill and isn't part of it any more
+     */
+    public boolean isMoved(int index) {
+        return this.graph.chunks.get(index).renderChunk.getPosition() != this.graph.positions.get(index);
+    }
+
+    /**
+     * @return The chunk the flood fill started from, which is never culled
+     */
+    public RenderChunk getOriginChunk() {
+        return this.graph.originChunk;
+    }
+
+    private Graph build(RenderChunk originChunk, BlockPos originPos, BlockPos cameraPos, boolean renderChunksMany, boolean fogOff, int layout, int version) {
+        Graph graph = new Graph(originChunk, originPos, cameraPos, renderChunksMany, fogOff, layout, version);
+        Set<RenderChunk> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<RenderGlobal.ContainerLocalRenderInformation> deque = new ArrayDeque<>();
+
+        if (originChunk != null) {
+            visited.add(originChunk);
+            deque.add(new RenderGlobal.ContainerLocalRenderInformation(originChunk, null, 0));
+        } else {
+            int y = cameraPos.getY() > 0 ? 248 : 8;
+
+            for (int x = -this.renderDistanceChunks; x <= this.renderDistanceChunks; ++x) {
+                for (int z = -this.renderDistanceChunks; z <= this.renderDistanceChunks; ++z) {
+                    RenderChunk renderchunk = this.viewFrustum.getRenderChunk(new BlockPos((x << 4) + 8, y, (z << 4) + 8));
+
+                    if (renderchunk != null && visited.add(renderchunk)) {
+                        deque.add(new RenderGlobal.ContainerLocalRenderInformation(renderchunk, null, 0));
+                    }
+                }
+            }
+        }
+
+        RenderGlobal.ContainerLocalRenderInformation info;
+
+        while ((info = deque.poll()) != null) {
+            RenderChunk renderchunk = info.renderChunk;
+            BlockPos pos = renderchunk.getPosition();
+            graph.chunks.add(info);
+            graph.positions.add(pos);
+
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                if (renderChunksMany && (info.setFacing.contains(facing.getOpposite()) || info.facing != null && !renderchunk.getCompiledChunk().isVisible(info.facing.getOpposite(), facing))) {
+                    continue;
+                }
+
+                RenderChunk neighbour = this.getNeighbour(cameraPos, pos, facing, fogOff);
+
+                if (neighbour != null && visited.add(neighbour)) {
+                    RenderGlobal.ContainerLocalRenderInformation next = new RenderGlobal.ContainerLocalRenderInformation(neighbour, facing, info.counter + 1);
+                    next.setFacing.addAll(info.setFacing);
+                    next.setFacing.add(facing);
+                    deque.add(next);
+                }
+            }
+        }
+
+        return graph;
+    }
+
+    /**
+     * Like {@link RenderGlobal}'s neighbour lookup, without the offset cache of the render chunk which is only safe
+     * to use on the render thread
+     */
+    private RenderChunk getNeighbour(BlockPos cameraPos, BlockPos pos, EnumFacing facing, boolean fogOff) {
+        BlockPos blockpos = pos.offset(facing, 16);
+
+        if (blockpos.getY() < 0 || blockpos.getY() >= 256) {
+            return null;
+        }
+
+        int x = MathHelper.abs_int(cameraPos.getX() - blockpos.getX());
+        int z = MathHelper.abs_int(cameraPos.getZ() - blockpos.getZ());
+
+        if (fogOff ? x > this.renderDistance || z > this.renderDistance : x * x + z * z > this.renderDistanceSq) {
+            return null;
+        }
+
+        return this.viewFrustum.getRenderChunk(blockpos);
+    }
+
+    private static class Graph {
+        private final RenderChunk originChunk;
+        private final BlockPos originPos;
+        private final BlockPos cameraPos;
+        private final boolean renderChunksMany;
+        private final boolean fogOff;
+        private final int layoutVersion;
+        private final int visibilityVersion;
+        private final List<RenderGlobal.ContainerLocalRenderInformation> chunks = new ArrayList<>(1024);
+        // Positions of the chunks during the flood fill
+        private final List<BlockPos> positions = new ArrayList<>(1024);
+
+        private Graph(RenderChunk originChunk, BlockPos originPos, BlockPos cameraPos, boolean renderChunksMany, boolean fogOff, int layoutVersion, int visibilityVersion) {
+            this.originChunk = originChunk;
+            this.originPos = originPos;
+            this.cameraPos = cameraPos;
+            this.renderChunksMany = renderChunksMany;
+            this.fogOff = fogOff;
+            this.layoutVersion = layoutVersion;
+            this.visibilityVersion = visibilityVersion;
+        }
+
+        /**
+         * @return True if the graph can stand in until one for the camera is done, the camera is at most in the
+         * next chunk
+         */
+        private boolean isNear(BlockPos originPos, BlockPos cameraPos) {
+            if (this.originPos == null || originPos == null) {
+                return this.originPos == originPos && this.cameraPos.getY() > 0 == cameraPos.getY() > 0;
+            }
+
+            return MathHelper.abs_int(this.originPos.getX() - originPos.getX()) <= 16 && MathHelper.abs_int(this.originPos.getY() - originPos.getY()) <= 16 && MathHelper.abs_int(this.originPos.getZ() - originPos.getZ()) <= 16;
+        }
+
+        private boolean isCurrent(RenderChunk originChunk, BlockPos originPos, BlockPos cameraPos, boolean renderChunksMany, boolean fogOff, int layoutVersion, int visibilityVersion) {
+            return this.originChunk == originChunk && this.originPos == originPos && this.renderChunksMany == renderChunksMany && this.fogOff == fogOff && this.layoutVersion == layoutVersion && this.visibilityVersion == visibilityVersion && this.cameraPos.distanceSq(cameraPos) <= 16.0D;
+        }
+    }
+}
@@ -1654,7 +1654,9 @@ public class EntityRenderer implements IResourceManagerReloadListener {
         }
 
         GL11.glPushMatrix();
-        EventManager.call(new Render3DEvent(partialTicks));
+        final Render3DEvent render3DEvent = Render3DEvent.acquire(partialTicks);
+        EventManager.call(render3DEvent);
+        render3DEvent.release();
         GL11.glColor4f(1, 1, 1, 1);
         GL11.glPopMatrix();
 
@@ -76,6 +76,8 @@ public class OpenGlHelper {
     private static boolean arbVbo;
     public static int GL_ARRAY_BUFFER;
     public static int GL_STATIC_DRAW;
+    private static boolean multiDrawSupported;
+    private static boolean arbCopyBuffer;
     private static final String __OBFID = "CL_00001179";
     public static float lastBrightnessX = 0.0F;
     public static float lastBrightnessY = 0.0F;
@@ -216,6 +218,10 @@ public class OpenGlHelper {
             GL_ARRAY_BUFFER = 34962;
         }
 
+        arbCopyBuffer = !contextcapabilities.OpenGL31 && contextcapabilities.GL_ARB_copy_buffer;
+        multiDrawSupported = vboSupported && !arbVbo && contextcapabilities.OpenGL14 && (contextcapabilities.OpenGL31 || arbCopyBuffer);
+        logText = logText + "Multi draw chunk rendering is " + (multiDrawSupported ? "" : "not ") + "available.\n";
+
         field_181063_b = s.contains("ati");
 
         if (field_181063_b) {
@@ -448,6 +454,39 @@ public class OpenGlHelper {
         }
     }
 
+    public static void glBufferData(int target, long size, int usage) {
+        if (arbVbo) {
+            ARBVertexBufferObject.glBufferDataARB(target, size, usage);
+        } else {
+            GL15.glBufferData(target, size, usage);
+        }
+    }
+
+    public static void glBufferSubData(int target, long offset, ByteBuffer data) {
+        if (arbVbo) {
+            ARBVertexBufferObject.glBufferSubDataARB(target, offset, data);
+        } else {
+            GL15.glBufferSubData(target, offset, data);
+        }
+    }
+
+    /**
+     * Copies a range of one buffer into another, only available with {@link #useMultiDraw()}
+     */
+    public static void glCopyBufferSubData(int readBuffer, int writeBuffer, long readOffset, long writeOffset, long size) {
+        glBindBuffer(GL31.GL_COPY_READ_BUFFER, readBuffer);
+        glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, writeBuffer);
+
+        if (arbCopyBuffer) {
+            ARBCopyBuffer.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, readOffset, writeOffset, size);
+        } else {
+            GL31.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, readOffset, writeOffset, size);
+        }
+
+        glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+    }
+
     public static void glDeleteBuffers(int buffer) {
         if (arbVbo) {
             ARBVertexBufferObject.glDeleteBuffersARB(buffer);
@@ -460,6 +499,14 @@ public class OpenGlHelper {
         return !Config.isMultiTexture() && vboSupported && Minecraft.getInstance().gameSettings.useVbo;
     }
 
+    /**
+     * Chunks are packed into shared buffers and drawn with one glMultiDrawArrays per region then. Shaders set up
+     * their own vertex attributes per chunk, so they keep the buffer per chunk.
+     */
+    public static boolean useMultiDraw() {
+        return multiDrawSupported && !Config.isShaders() && useVbo();
+    }
+
     public static void glBindFramebuffer(int target, int framebufferIn) {
         if (framebufferSupported) {
             switch (framebufferType) {
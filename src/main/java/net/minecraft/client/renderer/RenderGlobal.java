@@ -188,7 +188,7 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
     public Entity renderedEntity;
     public Set<RenderChunk> chunksToResortTransparency = new LinkedHashSet<>();
     public Set<RenderChunk> chunksToUpdateForced = new LinkedHashSet<>();
-    private final Deque<ContainerLocalRenderInformation> visibilityDeque = new ArrayDeque<>();
+    private volatile ChunkVisibilityGraph visibilityGraph;
     private List<ContainerLocalRenderInformation> renderInfosEntities = new ArrayList<>(1024);
     private List<ContainerLocalRenderInformation> renderInfosTileEntities = new ArrayList<>(1024);
     private final List<ContainerLocalRenderInformation> renderInfosNormal = new ArrayList<>(1024);
@@ -197,9 +197,6 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
     private final List<ContainerLocalRenderInformation> renderInfosShadow = new ArrayList<>(1024);
     private final List<ContainerLocalRenderInformation> renderInfosEntitiesShadow = new ArrayList<>(1024);
     private final List<ContainerLocalRenderInformation> renderInfosTileEntitiesShadow = new ArrayList<>(1024);
-    private int renderDistance = 0;
-    private int renderDistanceSq = 0;
-    private static final Set<EnumFacing> SET_ALL_FACINGS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(EnumFacing.VALUES)));
     private int countTileEntitiesRendered;
 
     public RenderGlobal(Minecraft mcIn) {
@@ -477,8 +474,6 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
             }
 
             this.renderDistanceChunks = this.mc.gameSettings.renderDistanceChunks;
-            this.renderDistance = this.renderDistanceChunks * 16;
-            this.renderDistanceSq = this.renderDistance * this.renderDistance;
             final boolean flag = this.vboEnabled;
             this.vboEnabled = OpenGlHelper.useVbo();
 
@@ -506,7 +501,12 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
                 this.field_181024_n.clear();
             }
 
+            if (this.renderContainer instanceof VboRenderList) {
+                ((VboRenderList) this.renderContainer).resetRegions();
+            }
+
             this.viewFrustum = new ViewFrustum(this.theWorld, this.mc.gameSettings.renderDistanceChunks, this, this.renderChunkFactory);
+            this.visibilityGraph = new ChunkVisibilityGraph(this.viewFrustum, this.renderDistanceChunks);
 
             if (this.theWorld != null) {
                 final Entity entity = this.mc.getRenderViewEntity();
@@ -520,6 +520,24 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
         }
     }
 
+    /**
+     * Called from any thread when a render chunk compiled with other visible faces than before
+     */
+    public void onChunkVisibilityChanged() {
+        final ChunkVisibilityGraph graph = this.visibilityGraph;
+
+        if (graph != null) {
+            graph.markVisibilityChanged();
+        }
+    }
+
+    /**
+     * @return The regions new render chunks put their vertices in, or null if each chunk has its own buffers
+     */
+    public ChunkRegions getChunkRegions() {
+        return this.renderContainer instanceof VboRenderList ? ((VboRenderList) this.renderContainer).getRegions() : null;
+    }
+
     protected void stopChunkUpdates() {
         this.chunksToUpdate.clear();
         this.renderDispatcher.stopChunkUpdates();
@@ -903,6 +921,7 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
             this.frustumUpdatePosChunkY = viewEntity.chunkCoordY;
             this.frustumUpdatePosChunkZ = viewEntity.chunkCoordZ;
             this.viewFrustum.updateChunkPositions(viewEntity.posX, viewEntity.posZ);
+            this.visibilityGraph.markChunksMoved();
         }
 
         if (Config.isDynamicLights()) {
@@ -975,88 +994,45 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
             this.renderInfosTileEntities = this.renderInfosTileEntitiesNormal;
         }
 
+        if (!flag && !Shaders.isShadowPass) {
+            boolean flag1 = this.mc.renderChunksMany;
+
+            if (renderchunk != null && playerSpectator && this.theWorld.getBlockState(blockpos2).getBlock().isOpaqueCube()) {
+                flag1 = false;
+            }
+
+            if (this.visibilityGraph.update(renderchunk, blockpos2, flag1)) {
+                this.displayListEntitiesDirty = true;
+            }
+        }
+
         if (!flag && this.displayListEntitiesDirty && !Shaders.isShadowPass) {
             this.displayListEntitiesDirty = false;
             this.renderInfos.clear();
             this.renderInfosEntities.clear();
             this.renderInfosTileEntities.clear();
-            this.visibilityDeque.clear();
-            final Deque<ContainerLocalRenderInformation> deque = this.visibilityDeque;
-            boolean flag1 = this.mc.renderChunksMany;
-
-            if (renderchunk != null) {
-                boolean flag2 = false;
-                final RenderGlobal.ContainerLocalRenderInformation renderglobal$containerlocalrenderinformation3 = new RenderGlobal.ContainerLocalRenderInformation(renderchunk, null, 0, null);
-                final Set<EnumFacing> set1 = SET_ALL_FACINGS;
-
-                if (set1.size() == 1) {
-                    final Vector3f vector3f = this.getViewVector(viewEntity, partialTicks);
-                    final EnumFacing enumfacing = EnumFacing.getFacingFromVector(vector3f.x, vector3f.y, vector3f.z).getOpposite();
-                    set1.remove(enumfacing);
-                }
-
-                if (set1.isEmpty()) {
-                    flag2 = true;
-                }
-
-                if (flag2 && !playerSpectator) {
-                    this.renderInfos.add(renderglobal$containerlocalrenderinformation3);
-                } else {
-                    if (playerSpectator && this.theWorld.getBlockState(blockpos2).getBlock().isOpaqueCube()) {
-                        flag1 = false;
-                    }
-
-                    renderchunk.setFrameIndex(frameCount);
-                    deque.add(renderglobal$containerlocalrenderinformation3);
-                }
-            } else {
-                final int i = blockpos2.getY() > 0 ? 248 : 8;
+            final List<ContainerLocalRenderInformation> list = this.visibilityGraph.getChunks();
+            final RenderChunk renderchunk1 = this.visibilityGraph.getOriginChunk();
 
-                for (int j = -this.renderDistanceChunks; j <= this.renderDistanceChunks; ++j) {
-                    for (int k = -this.renderDistanceChunks; k <= this.renderDistanceChunks; ++k) {
-                        final RenderChunk renderchunk2 = this.viewFrustum.getRenderChunk(new BlockPos((j << 4) + 8, i, (k << 4) + 8));
+            for (int i = 0; i < list.size(); ++i) {
+                final RenderGlobal.ContainerLocalRenderInformation renderglobal$containerlocalrenderinformation1 = list.get(i);
+                final RenderChunk renderchunk4 = renderglobal$containerlocalrenderinformation1.renderChunk;
 
-                        if (renderchunk2 != null && camera.isBoundingBoxInFrustum(renderchunk2.boundingBox)) {
-                            renderchunk2.setFrameIndex(frameCount);
-                            deque.add(new RenderGlobal.ContainerLocalRenderInformation(renderchunk2, null, 0, null));
-                        }
-                    }
+                if (this.visibilityGraph.isMoved(i) || renderchunk4 != renderchunk1 && !camera.isBoundingBoxInFrustum(renderchunk4.boundingBox)) {
+                    continue;
                 }
-            }
-
-            final EnumFacing[] aenumfacing = EnumFacing.VALUES;
-            final int l = aenumfacing.length;
-
-            while (!deque.isEmpty()) {
-                final RenderGlobal.ContainerLocalRenderInformation renderglobal$containerlocalrenderinformation1 = deque.poll();
-                final RenderChunk renderchunk4 = renderglobal$containerlocalrenderinformation1.renderChunk;
-                final EnumFacing enumfacing2 = renderglobal$containerlocalrenderinformation1.facing;
-                final BlockPos blockpos3 = renderchunk4.getPosition();
 
                 if (!renderchunk4.compiledChunk.isEmpty() || renderchunk4.isNeedsUpdate()) {
                     this.renderInfos.add(renderglobal$containerlocalrenderinformation1);
                 }
 
-                if (ChunkUtils.hasEntities(this.theWorld.getChunkFromBlockCoords(blockpos3))) {
+                if (ChunkUtils.hasEntities(this.theWorld.getChunkFromBlockCoords(renderchunk4.getPosition()))) {
                     this.renderInfosEntities.add(renderglobal$containerlocalrenderinformation1);
                 }
 
                 if (!renderchunk4.getCompiledChunk().getTileEntities().isEmpty()) {
                     this.renderInfosTileEntities.add(renderglobal$containerlocalrenderinformation1);
                 }
-
-                for (EnumFacing enumfacing1 : aenumfacing) {
-                    if ((!flag1 || !renderglobal$containerlocalrenderinformation1.setFacing.contains(enumfacing1.getOpposite())) && (!flag1 || enumfacing2 == null || renderchunk4.getCompiledChunk().isVisible(enumfacing2.getOpposite(), enumfacing1))) {
-                        final RenderChunk renderchunk3 = this.func_181562_a(blockpos2, renderchunk4, enumfacing1);
-
-                        if (renderchunk3 != null && renderchunk3.setFrameIndex(frameCount) && camera.isBoundingBoxInFrustum(renderchunk3.boundingBox)) {
-                            final ContainerLocalRenderInformation info = new ContainerLocalRenderInformation(renderchunk3, enumfacing1, renderglobal$containerlocalrenderinformation1.counter + 1, null);
-                            info.setFacing.addAll(renderglobal$containerlocalrenderinformation1.setFacing);
-                            info.setFacing.add(enumfacing1);
-                            deque.add(info);
-                        }
-                    }
-                }
             }
         }
 
@@ -1070,6 +1046,10 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
         if (Shaders.isShadowPass) {
             Shaders.mcProfilerEndSection();
         } else {
+            if (camera instanceof Frustum) {
+                this.renderDispatcher.setCamera(d3, d4, d5, ((Frustum) camera).getClippingHelper());
+            }
+
             this.renderDispatcher.clearChunkUpdates();
             final Set<RenderChunk> set = this.chunksToUpdate;
             this.chunksToUpdate = Sets.newLinkedHashSet();
@@ -1122,31 +1102,6 @@ public class RenderGlobal implements IWorldAccess, IResourceManagerReloadListene
         return visgraph.func_178609_b(pos);
     }
 
-    private RenderChunk func_181562_a(BlockPos p_181562_1_, RenderChunk p_181562_2_, EnumFacing p_181562_3_) {
-        final BlockPos blockpos = p_181562_2_.getPositionOffset16(p_181562_3_);
-
-        if (blockpos.getY() >= 0 && blockpos.getY() < 256) {
-            final int i = MathHelper.abs_int(p_181562_1_.getX() - blockpos.getX());
-            final int j = MathHelper.abs_int(p_181562_1_.getZ() - blockpos.getZ());
-
-            if (Config.isFogOff()) {
-                if (i > this.renderDistance || j > this.renderDistance) {
-                    return null;
-                }
-            } else {
-                final int k = i * i + j * j;
-
-                if (k > this.renderDistanceSq) {
-                    return null;
-                }
-            }
-
-            return this.viewFrustum.getRenderChunk(blockpos);
-        } else {
-            return null;
-        }
-    }
-
     private void fixTerrainFrustum(double x, double y, double z) {
         this.debugFixedClippingHelper = new ClippingHelperImpl();
         ((ClippingHelperImpl) this.debugFixedClippingHelper).init();
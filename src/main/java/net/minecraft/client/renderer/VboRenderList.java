@@ -1,26 +1,38 @@
 package net.minecraft.client.renderer;
 
+import net.minecraft.client.renderer.chunk.ChunkRegions;
+import net.minecraft.client.renderer.chunk.RegionVertexBuffer;
 import net.minecraft.client.renderer.chunk.RenderChunk;
+import net.minecraft.client.renderer.vertex.SharedVertexBuffer;
 import net.minecraft.client.renderer.vertex.VertexBuffer;
 import net.minecraft.util.EnumWorldBlockLayer;
 import net.optifine.Config;
 import org.lwjgl.opengl.GL11;
 import net.shadersmod.client.ShadersRender;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class VboRenderList extends ChunkRenderContainer {
     private static final String __OBFID = "CL_00002533";
+    private ChunkRegions regions;
+    private final List<ChunkRegions.Region> queuedRegions = new ArrayList<>();
 
     public void renderChunkLayer(EnumWorldBlockLayer layer) {
         if (this.initialized) {
-            for (RenderChunk renderchunk : this.renderChunks) {
-                VertexBuffer vertexbuffer = renderchunk.getVertexBufferByLayer(layer.ordinal());
-                GlStateManager.pushMatrix();
-                this.preRenderChunk(renderchunk);
-                renderchunk.multModelviewMatrix();
-                vertexbuffer.bindBuffer();
-                this.setupArrayPointers();
-                vertexbuffer.drawArrays(7);
-                GlStateManager.popMatrix();
+            if (this.regions != null) {
+                this.renderRegions(layer);
+            } else {
+                for (RenderChunk renderchunk : this.renderChunks) {
+                    VertexBuffer vertexbuffer = renderchunk.getVertexBufferByLayer(layer.ordinal());
+                    GlStateManager.pushMatrix();
+                    this.preRenderChunk(renderchunk);
+                    renderchunk.multModelviewMatrix();
+                    vertexbuffer.bindBuffer();
+                    this.setupArrayPointers();
+                    vertexbuffer.drawArrays(7);
+                    GlStateManager.popMatrix();
+                }
             }
 
             OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
@@ -29,6 +41,58 @@ public class VboRenderList extends ChunkRenderContainer {
         }
     }
 
+    private void renderRegions(EnumWorldBlockLayer layer) {
+        int i = layer.ordinal();
+        // Translucent chunks come sorted back to front, a region is only drawn at once while its chunks come in a row
+        boolean ordered = layer == EnumWorldBlockLayer.TRANSLUCENT;
+
+        for (RenderChunk renderchunk : this.renderChunks) {
+            RegionVertexBuffer vertexbuffer = (RegionVertexBuffer) renderchunk.getVertexBufferByLayer(i);
+            ChunkRegions.Region region = vertexbuffer.getRegion();
+
+            if (region != null) {
+                if (ordered && !this.queuedRegions.isEmpty() && this.queuedRegions.get(this.queuedRegions.size() - 1) != region) {
+                    this.drawQueuedRegions(i);
+                }
+
+                if (region.getBuffer(i).addDraw(vertexbuffer.getFirst(), vertexbuffer.getCount())) {
+                    this.queuedRegions.add(region);
+                }
+            }
+        }
+
+        this.drawQueuedRegions(i);
+    }
+
+    private void drawQueuedRegions(int layer) {
+        for (ChunkRegions.Region region : this.queuedRegions) {
+            SharedVertexBuffer sharedvertexbuffer = region.getBuffer(layer);
+            GlStateManager.pushMatrix();
+            this.preRenderRegion(region.getOrigin());
+            sharedvertexbuffer.bindBuffer();
+            this.setupArrayPointers();
+            sharedvertexbuffer.drawQueued(7);
+            GlStateManager.popMatrix();
+        }
+
+        this.queuedRegions.clear();
+    }
+
+    /**
+     * Called before the render chunks are created again, which take the regions to put their vertices in from here
+     */
+    public void resetRegions() {
+        if (this.regions != null) {
+            this.regions.deleteGlResources();
+        }
+
+        this.regions = OpenGlHelper.useMultiDraw() ? new ChunkRegions() : null;
+    }
+
+    public ChunkRegions getRegions() {
+        return this.regions;
+    }
+
     private void setupArrayPointers() {
         if (Config.isShaders()) {
             ShadersRender.setupArrayPointersVbo();
@@ -0,0 +1,97 @@
+package net.minecraft.client.renderer.chunk;
+
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.SharedVertexBuffer;
+import net.minecraft.util.BlockPos;
+import net.minecraft.util.EnumWorldBlockLayer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Groups the render chunks into columns of 8x8 chunks, each layer of a column shares one vertex buffer. The vertices
+ * are stored relative to the corner of the region, so all chunks of a region are drawn with a single translation.
+ */
+public class ChunkRegions {
+    private static final int SIZE_SHIFT = 7;
+
+    private final Map<Long, Region> regions = new HashMap<>();
+
+    public Region getRegion(BlockPos pos) {
+        long key = key(pos);
+        Region region = this.regions.get(key);
+
+        if (region == null) {
+            region = new Region(new BlockPos(pos.getX() >> SIZE_SHIFT << SIZE_SHIFT, 0, pos.getZ() >> SIZE_SHIFT << SIZE_SHIFT));
+            this.regions.put(key, region);
+        }
+
+        return region;
+    }
+
+    /**
+     * Deletes the region once none of its buffers holds any vertices
+     */
+    public void removeIfEmpty(Region region) {
+        if (region.isEmpty()) {
+            region.deleteGlBuffers();
+            this.regions.remove(key(region.getOrigin()));
+        }
+    }
+
+    public void deleteGlResources() {
+        for (Region region : this.regions.values()) {
+            region.deleteGlBuffers();
+        }
+
+        this.regions.clear();
+    }
+
+    private static long key(BlockPos pos) {
+        return (long) (pos.getX() >> SIZE_SHIFT) << 32 | (pos.getZ() >> SIZE_SHIFT) & 0xFFFFFFFFL;
+    }
+
+    public static class Region {
+        private final BlockPos origin;
+        private final SharedVertexBuffer[] buffers = new SharedVertexBuffer[EnumWorldBlockLayer.values().length];
+
+        private Region(BlockPos originIn) {
+            this.origin = originIn;
+        }
+
+        public BlockPos getOrigin() {
+            return this.origin;
+        }
+
+        public boolean contains(BlockPos pos) {
+            return pos.getX() >> SIZE_SHIFT == this.origin.getX() >> SIZE_SHIFT && pos.getZ() >> SIZE_SHIFT == this.origin.getZ() >> SIZE_SHIFT;
+        }
+
+        public SharedVertexBuffer getBuffer(int layer) {
+            if (this.buffers[layer] == null) {
+                this.buffers[layer] = new SharedVertexBuffer(DefaultVertexFormats.BLOCK);
+            }
+
+            return this.buffers[layer];
+        }
+
+        private boolean isEmpty() {
+            for (SharedVertexBuffer buffer : this.buffers) {
+                if (buffer != null && !buffer.isEmpty()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void deleteGlBuffers() {
+            for (int i = 0; i < this.buffers.length; ++i) {
+                if (this.buffers[i] != null) {
+                    this.buffers[i].deleteGlBuffers();
+                    this.buffers[i] = null;
+                }
+            }
+        }
+    }
+}
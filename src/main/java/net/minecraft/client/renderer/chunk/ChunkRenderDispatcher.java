@@ -8,8 +8,13 @@ import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.*;
+import net.minecraft.client.renderer.culling.ClippingHelper;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.vertex.VertexBuffer;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.BlockPos;
 import net.minecraft.util.EnumWorldBlockLayer;
+import net.minecraft.util.MathHelper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.lwjgl.opengl.GL11;
@@ -24,54 +29,114 @@ public class ChunkRenderDispatcher {
     private static final Logger LOGGER = LogManager.getLogger();
 
     private static final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Chunk Batcher %d").setDaemon(true).build();
+    /**
+     * Queued updates beyond this push out the one furthest away
+     */
+    private static final int MAX_QUEUED_UPDATES = 100;
+    private static final double UPLOAD_FRAME_SHARE = 0.2D;
+    private static final long MIN_UPLOAD_BUDGET_NANOS = 500_000L;
+    private static final long MAX_UPLOAD_BUDGET_NANOS = 8_000_000L;
     private final List<ChunkRenderWorker> listThreadedWorkers = Lists.newArrayList();
-    private final BlockingQueue<ChunkCompileTaskGenerator> queueChunkUpdates = Queues.newArrayBlockingQueue(100);
-    private final BlockingQueue<RegionRenderCacheBuilder> queueFreeRenderBuilders = Queues.newArrayBlockingQueue(5);
+    private final List<ChunkCompileTaskGenerator> queueChunkUpdates = Lists.newArrayList();
+    private final BlockingQueue<RegionRenderCacheBuilder> queueFreeRenderBuilders;
+    private final int countRenderBuilders;
     private final WorldVertexBufferUploader worldVertexUploader = new WorldVertexBufferUploader();
     private final VertexBufferUploader vertexUploader = new VertexBufferUploader();
     private final Queue<ListenableFutureTask<?>> queueChunkUploads = Queues.newArrayDeque();
     private final ChunkRenderWorker renderWorker;
+    private volatile CameraView cameraView;
+    private long lastUploadTimeNano;
+    private long averageFrameTimeNanos = 16_666_666L;
 
     public ChunkRenderDispatcher() {
-        for (int i = 0; i < 2; ++i) {
+        // Every worker holds a render builder of ~10 MB while compiling, so don't go beyond a few of them
+        final int workers = MathHelper.clamp_int(Runtime.getRuntime().availableProcessors() - 2, 2, 6);
+
+        for (int i = 0; i < workers; ++i) {
             final ChunkRenderWorker chunkrenderworker = new ChunkRenderWorker(this);
             final Thread thread = threadFactory.newThread(chunkrenderworker);
             thread.start();
             this.listThreadedWorkers.add(chunkrenderworker);
         }
 
-        for (int j = 0; j < 5; ++j) {
+        // The spare builders hold compiled chunks until they are uploaded
+        this.countRenderBuilders = workers + 3;
+        this.queueFreeRenderBuilders = Queues.newArrayBlockingQueue(this.countRenderBuilders);
+
+        for (int j = 0; j < this.countRenderBuilders; ++j) {
             this.queueFreeRenderBuilders.add(new RegionRenderCacheBuilder());
         }
 
         this.renderWorker = new ChunkRenderWorker(this, new RegionRenderCacheBuilder());
     }
 
+    /**
+     * Updates the camera the queued chunk updates are ordered by, called by the render thread every frame.
+     *
+     * @param clippingHelper the clipping planes of the view, relative to the camera position
+     */
+    public void setCamera(double x, double y, double z, ClippingHelper clippingHelper) {
+        final ClippingHelper view = new ClippingHelper();
+
+        for (int i = 0; i < view.frustum.length; ++i) {
+            System.arraycopy(clippingHelper.frustum[i], 0, view.frustum[i], 0, view.frustum[i].length);
+        }
+
+        this.cameraView = new CameraView(x, y, z, view);
+    }
+
     public String getDebugInfo() {
-        return String.format("pC: %03d, pU: %1d, aB: %1d", this.queueChunkUpdates.size(), this.queueChunkUploads.size(), this.queueFreeRenderBuilders.size());
+        final int chunkUpdates;
+
+        synchronized (this.queueChunkUpdates) {
+            chunkUpdates = this.queueChunkUpdates.size();
+        }
+
+        return String.format("pC: %03d, pU: %1d, aB: %1d", chunkUpdates, this.queueChunkUploads.size(), this.queueFreeRenderBuilders.size());
     }
 
-    public boolean runChunkUploads(long p_178516_1_) {
+    /**
+     * Uploads finished chunks until the time is up, at least one per call. Besides the given deadline the uploads
+     * get a share of the measured frame time, so when many chunks finish at once they are spread over a few frames
+     * instead of stalling one.
+     *
+     * @param finishTimeNano the time to stop at, or 0 to only upload one chunk
+     * @return true if anything was uploaded
+     */
+    public boolean runChunkUploads(long finishTimeNano) {
+        final long start = System.nanoTime();
+
+        if (finishTimeNano != 0L) {
+            final long frameTime = start - this.lastUploadTimeNano;
+            this.lastUploadTimeNano = start;
+
+            // Ignore pauses and the first frame
+            if (frameTime > 0L && frameTime < 1_000_000_000L) {
+                this.averageFrameTimeNanos += (frameTime - this.averageFrameTimeNanos) / 8L;
+            }
+
+            final long budget = Math.max(MIN_UPLOAD_BUDGET_NANOS, Math.min((long) (this.averageFrameTimeNanos * UPLOAD_FRAME_SHARE), MAX_UPLOAD_BUDGET_NANOS));
+            finishTimeNano = Math.min(finishTimeNano, start + budget);
+        }
+
         boolean flag = false;
 
         while (true) {
-            boolean flag1 = false;
+            final ListenableFutureTask<?> task;
 
+            // Workers keep queueing uploads while one runs
             synchronized (this.queueChunkUploads) {
-                if (!this.queueChunkUploads.isEmpty()) {
-                    this.queueChunkUploads.poll().run();
-                    flag1 = true;
-                    flag = true;
-                }
+                task = this.queueChunkUploads.poll();
             }
 
-            if (p_178516_1_ == 0L || !flag1) {
+            if (task == null) {
                 break;
             }
 
-            final long i = p_178516_1_ - System.nanoTime();
+            task.run();
+            flag = true;
 
-            if (i < 0L) {
+            if (finishTimeNano == 0L || finishTimeNano - System.nanoTime() < 0L) {
                 break;
             }
         }
@@ -85,8 +150,8 @@ public class ChunkRenderDispatcher {
 
         try {
             final ChunkCompileTaskGenerator chunkcompiletaskgenerator = chunkRenderer.makeCompileTaskChunk();
-            chunkcompiletaskgenerator.addFinishRunnable(() -> ChunkRenderDispatcher.this.queueChunkUpdates.remove(chunkcompiletaskgenerator));
-            final boolean flag = this.queueChunkUpdates.offer(chunkcompiletaskgenerator);
+            chunkcompiletaskgenerator.addFinishRunnable(() -> ChunkRenderDispatcher.this.removeChunkUpdate(chunkcompiletaskgenerator));
+            final boolean flag = this.queueChunkUpdate(chunkcompiletaskgenerator);
 
             if (!flag) {
                 chunkcompiletaskgenerator.finish();
@@ -100,6 +165,12 @@ public class ChunkRenderDispatcher {
         return flag1;
     }
 
+    private void removeChunkUpdate(ChunkCompileTaskGenerator generator) {
+        synchronized (this.queueChunkUpdates) {
+            this.queueChunkUpdates.remove(generator);
+        }
+    }
+
     public boolean updateChunkNow(RenderChunk chunkRenderer) {
         chunkRenderer.getLockCompileTask().lock();
         boolean flag;
@@ -128,7 +199,7 @@ public class ChunkRenderDispatcher {
 
         final List<RegionRenderCacheBuilder> list = Lists.newArrayList();
 
-        while (list.size() != 5) {
+        while (list.size() != this.countRenderBuilders) {
             try {
                 list.add(this.allocateRenderBuilder());
             } catch (InterruptedException var3) {
@@ -146,8 +217,101 @@ public class ChunkRenderDispatcher {
         return this.queueFreeRenderBuilders.take();
     }
 
+    /**
+     * Takes the queued update that should be built first, see {@link #getPriority}. Waits if there is none.
+     */
     public ChunkCompileTaskGenerator getNextChunkUpdate() throws InterruptedException {
-        return this.queueChunkUpdates.take();
+        synchronized (this.queueChunkUpdates) {
+            while (this.queueChunkUpdates.isEmpty()) {
+                this.queueChunkUpdates.wait();
+            }
+
+            final CameraView view = this.cameraView;
+            int best = 0;
+
+            if (view != null) {
+                double bestPriority = Double.MAX_VALUE;
+
+                for (int i = 0; i < this.queueChunkUpdates.size(); ++i) {
+                    final double priority = getPriority(this.queueChunkUpdates.get(i), view);
+
+                    if (priority < bestPriority) {
+                        bestPriority = priority;
+                        best = i;
+                    }
+                }
+            }
+
+            return this.queueChunkUpdates.remove(best);
+        }
+    }
+
+    /**
+     * Queues the update. If the queue is full the update furthest away is dropped instead, if that's this one it
+     * isn't queued.
+     *
+     * @return false if the update wasn't queued
+     */
+    private boolean queueChunkUpdate(ChunkCompileTaskGenerator generator) {
+        ChunkCompileTaskGenerator dropped = null;
+
+        synchronized (this.queueChunkUpdates) {
+            final CameraView view = this.cameraView;
+
+            if (this.queueChunkUpdates.size() >= MAX_QUEUED_UPDATES) {
+                if (view == null) {
+                    return false;
+                }
+
+                int worst = 0;
+                double worstPriority = -1.0D;
+
+                for (int i = 0; i < this.queueChunkUpdates.size(); ++i) {
+                    final double priority = getPriority(this.queueChunkUpdates.get(i), view);
+
+                    if (priority > worstPriority) {
+                        worstPriority = priority;
+                        worst = i;
+                    }
+                }
+
+                if (getPriority(generator, view) >= worstPriority) {
+                    return false;
+                }
+
+                dropped = this.queueChunkUpdates.remove(worst);
+            }
+
+            this.queueChunkUpdates.add(generator);
+            this.queueChunkUpdates.notify();
+        }
+
+        // Finishing marks the chunk for another update, don't hold the queue while taking the task's lock
+        if (dropped != null) {
+            dropped.finish();
+        }
+
+        return true;
+    }
+
+    /**
+     * Squared distance from the camera to the chunk, chunks outside of the view count as four times as far away.
+     * Lower is built first.
+     */
+    private static double getPriority(ChunkCompileTaskGenerator generator, CameraView view) {
+        final RenderChunk renderChunk = generator.getRenderChunk();
+        final BlockPos pos = renderChunk.getPosition();
+        final double x = pos.getX() + 8.0D - view.x;
+        final double y = pos.getY() + 8.0D - view.y;
+        final double z = pos.getZ() + 8.0D - view.z;
+        final double distanceSq = x * x + y * y + z * z;
+        final AxisAlignedBB box = renderChunk.boundingBox;
+
+        if (box != null && !view.frustum.isBoundingBoxInFrustum(box)) {
+            return distanceSq * 4.0D;
+        }
+
+        return distanceSq;
     }
 
     public boolean updateTransparencyLater(RenderChunk chunkRenderer) {
@@ -162,8 +326,8 @@ public class ChunkRenderDispatcher {
                 return flag;
             }
 
-            chunkcompiletaskgenerator.addFinishRunnable(() -> ChunkRenderDispatcher.this.queueChunkUpdates.remove(chunkcompiletaskgenerator));
-            flag = this.queueChunkUpdates.offer(chunkcompiletaskgenerator);
+            chunkcompiletaskgenerator.addFinishRunnable(() -> ChunkRenderDispatcher.this.removeChunkUpdate(chunkcompiletaskgenerator));
+            flag = this.queueChunkUpdate(chunkcompiletaskgenerator);
         } finally {
             chunkRenderer.getLockCompileTask().unlock();
         }
@@ -209,12 +373,30 @@ public class ChunkRenderDispatcher {
     }
 
     public void clearChunkUpdates() {
-        while (!this.queueChunkUpdates.isEmpty()) {
-            final ChunkCompileTaskGenerator chunkcompiletaskgenerator = this.queueChunkUpdates.poll();
+        final List<ChunkCompileTaskGenerator> list;
 
-            if (chunkcompiletaskgenerator != null) {
-                chunkcompiletaskgenerator.finish();
-            }
+        synchronized (this.queueChunkUpdates) {
+            list = Lists.newArrayList(this.queueChunkUpdates);
+            this.queueChunkUpdates.clear();
+        }
+
+        for (ChunkCompileTaskGenerator chunkcompiletaskgenerator : list) {
+            chunkcompiletaskgenerator.finish();
+        }
+    }
+
+    private static final class CameraView {
+        private final double x;
+        private final double y;
+        private final double z;
+        private final Frustum frustum;
+
+        private CameraView(double x, double y, double z, ClippingHelper clippingHelper) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.frustum = new Frustum(clippingHelper);
+            this.frustum.setPosition(x, y, z);
         }
     }
 
@@ -62,6 +62,21 @@ public class CompiledChunk {
         return this.setVisibility.isVisible(facing, facing2);
     }
 
+    /**
+     * @return True if both chunks can be seen through between the same faces
+     */
+    public boolean hasSameVisibility(CompiledChunk other) {
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            for (EnumFacing facing2 : EnumFacing.VALUES) {
+                if (this.isVisible(facing, facing2) != other.isVisible(facing, facing2)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
     public void setVisibility(SetVisibility visibility) {
         this.setVisibility = visibility;
     }
@@ -0,0 +1,111 @@
+package net.minecraft.client.renderer.chunk;
+
+import net.minecraft.client.renderer.vertex.SharedVertexBuffer;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.BlockPos;
+import org.lwjgl.opengl.GL11;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vertex buffer of a chunk layer whose vertices are kept in the shared buffer of the region the chunk is in.
+ */
+public class RegionVertexBuffer extends VertexBuffer {
+    private final ChunkRegions regions;
+    private final RenderChunk renderChunk;
+    private final int layer;
+    private ChunkRegions.Region region;
+    private int first;
+    private int capacity;
+    private int count;
+
+    public RegionVertexBuffer(VertexFormat vertexFormatIn, ChunkRegions regionsIn, RenderChunk renderChunkIn, int layerIn) {
+        super(vertexFormatIn, false);
+        this.regions = regionsIn;
+        this.renderChunk = renderChunkIn;
+        this.layer = layerIn;
+    }
+
+    @Override
+    public void func_181722_a(ByteBuffer p_181722_1_) {
+        int stride = this.getVertexFormat().getNextOffset();
+        int vertices = p_181722_1_.limit() / stride;
+        BlockPos pos = this.renderChunk.getPosition();
+
+        // Ranges that became a lot too large are given back, translucent resorts keep the size
+        if (this.region != null && (vertices == 0 || !this.region.contains(pos) || vertices > this.capacity || vertices < this.capacity / 2)) {
+            this.release();
+        }
+
+        this.count = vertices;
+
+        if (vertices == 0) {
+            return;
+        }
+
+        if (this.region == null) {
+            this.region = this.regions.getRegion(pos);
+            this.first = this.region.getBuffer(this.layer).allocate(vertices);
+            this.capacity = vertices;
+        }
+
+        // The chunk was built relative to its own corner
+        BlockPos origin = this.region.getOrigin();
+        float x = (float) (pos.getX() - origin.getX());
+        float y = (float) (pos.getY() - origin.getY());
+        float z = (float) (pos.getZ() - origin.getZ());
+
+        for (int i = 0, end = vertices * stride; i < end; i += stride) {
+            p_181722_1_.putFloat(i, p_181722_1_.getFloat(i) + x);
+            p_181722_1_.putFloat(i + 4, p_181722_1_.getFloat(i + 4) + y);
+            p_181722_1_.putFloat(i + 8, p_181722_1_.getFloat(i + 8) + z);
+        }
+
+        this.region.getBuffer(this.layer).upload(this.first, p_181722_1_);
+    }
+
+    @Override
+    public void bindBuffer() {
+        if (this.region != null) {
+            this.region.getBuffer(this.layer).bindBuffer();
+        }
+    }
+
+    @Override
+    public void drawArrays(int mode) {
+        if (this.region != null) {
+            GL11.glDrawArrays(mode, this.first, this.count);
+        }
+    }
+
+    @Override
+    public void deleteGlBuffers() {
+        this.release();
+    }
+
+    /**
+     * Gives the range back to the region, done when the chunk moves or is deleted
+     */
+    public void release() {
+        if (this.region != null) {
+            this.region.getBuffer(this.layer).free(this.first, this.capacity);
+            this.regions.removeIfEmpty(this.region);
+            this.region = null;
+            this.capacity = 0;
+            this.count = 0;
+        }
+    }
+
+    public ChunkRegions.Region getRegion() {
+        return this.region;
+    }
+
+    public int getFirst() {
+        return this.first;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+}
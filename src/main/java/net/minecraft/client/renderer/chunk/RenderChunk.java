@@ -67,8 +67,10 @@ public class RenderChunk {
         }
 
         if (OpenGlHelper.useVbo()) {
+            ChunkRegions chunkregions = renderGlobalIn.getChunkRegions();
+
             for (int i = 0; i < EnumWorldBlockLayer.values().length; ++i) {
-                this.vertexBuffers[i] = new VertexBuffer(DefaultVertexFormats.BLOCK);
+                this.vertexBuffers[i] = chunkregions != null ? new RegionVertexBuffer(DefaultVertexFormats.BLOCK, chunkregions, this, i) : new VertexBuffer(DefaultVertexFormats.BLOCK);
             }
         }
     }
@@ -329,7 +331,12 @@ public class RenderChunk {
         this.lockCompiledChunk.lock();
 
         try {
+            CompiledChunk compiledchunk = this.compiledChunk;
             this.compiledChunk = compiledChunkIn;
+
+            if (!compiledchunk.hasSameVisibility(compiledChunkIn)) {
+                this.renderGlobal.onChunkVisibilityChanged();
+            }
         } finally {
             this.lockCompiledChunk.unlock();
         }
@@ -364,6 +371,12 @@ public class RenderChunk {
         for (int i = 0; i < this.positionOffsets16.length; ++i) {
             this.positionOffsets16[i] = null;
         }
+
+        for (VertexBuffer vertexbuffer : this.vertexBuffers) {
+            if (vertexbuffer instanceof RegionVertexBuffer) {
+                ((RegionVertexBuffer) vertexbuffer).release();
+            }
+        }
     }
 
     public boolean isNeedsUpdate() {
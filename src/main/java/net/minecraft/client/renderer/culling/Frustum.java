@@ -16,6 +16,10 @@ public class Frustum implements ICamera {
         this.clippingHelper = p_i46196_1_;
     }
 
+    public ClippingHelper getClippingHelper() {
+        return this.clippingHelper;
+    }
+
     public void setPosition(double p_78547_1_, double p_78547_3_, double p_78547_5_) {
         this.xPosition = p_78547_1_;
         this.yPosition = p_78547_3_;
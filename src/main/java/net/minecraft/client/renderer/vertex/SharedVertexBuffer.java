@@ -0,0 +1,167 @@
+package net.minecraft.client.renderer.vertex;
+
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.OpenGlHelper;
+import org.lwjgl.opengl.GL14;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One GL buffer holding the vertices of many chunks, the ranges queued with {@link #addDraw(int, int)} are drawn
+ * with a single glMultiDrawArrays.
+ * <p>
+ * Ranges are handed out first fit from a list of free ranges. If none is large enough the buffer is grown and the
+ * old content copied over on the GPU, so no copy of the vertices is kept in memory.
+ */
+public class SharedVertexBuffer {
+    private static final int MIN_CAPACITY = 4096;
+    private static final int GL_DYNAMIC_DRAW = 35048;
+
+    private final int stride;
+    private int glBufferId;
+    private int capacity;
+    private int used;
+    // Start -> length of the free ranges in vertices, neighbouring ranges are merged
+    private final TreeMap<Integer, Integer> freeRanges = new TreeMap<>();
+    private IntBuffer drawFirsts = GLAllocation.createDirectIntBuffer(64);
+    private IntBuffer drawCounts = GLAllocation.createDirectIntBuffer(64);
+
+    public SharedVertexBuffer(VertexFormat vertexFormatIn) {
+        this.stride = vertexFormatIn.getNextOffset();
+        this.glBufferId = OpenGlHelper.glGenBuffers();
+    }
+
+    /**
+     * @return The first vertex of the range
+     */
+    public int allocate(int vertices) {
+        while (true) {
+            for (Map.Entry<Integer, Integer> entry : this.freeRanges.entrySet()) {
+                int start = entry.getKey();
+                int length = entry.getValue();
+
+                if (length >= vertices) {
+                    this.freeRanges.remove(start);
+
+                    if (length > vertices) {
+                        this.freeRanges.put(start + vertices, length - vertices);
+                    }
+
+                    this.used += vertices;
+                    return start;
+                }
+            }
+
+            this.grow(vertices);
+        }
+    }
+
+    public void free(int first, int vertices) {
+        if (vertices > 0) {
+            this.used -= vertices;
+            this.addFreeRange(first, vertices);
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.used == 0;
+    }
+
+    /**
+     * Uploads the vertices to a range returned by {@link #allocate(int)}
+     */
+    public void upload(int first, ByteBuffer data) {
+        this.bindBuffer();
+        OpenGlHelper.glBufferSubData(OpenGlHelper.GL_ARRAY_BUFFER, (long) first * this.stride, data);
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * @return True if it is the first range queued since the last draw
+     */
+    public boolean addDraw(int first, int count) {
+        int size = this.drawFirsts.position();
+
+        // Chunks next to each other in the buffer are drawn as one range
+        if (size > 0 && this.drawFirsts.get(size - 1) + this.drawCounts.get(size - 1) == first) {
+            this.drawCounts.put(size - 1, this.drawCounts.get(size - 1) + count);
+            return false;
+        }
+
+        if (!this.drawFirsts.hasRemaining()) {
+            this.drawFirsts = grow(this.drawFirsts);
+            this.drawCounts = grow(this.drawCounts);
+        }
+
+        this.drawFirsts.put(first);
+        this.drawCounts.put(count);
+        return size == 0;
+    }
+
+    public void bindBuffer() {
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, this.glBufferId);
+    }
+
+    /**
+     * Draws the queued ranges, the buffer has to be bound and the array pointers set up
+     */
+    public void drawQueued(int mode) {
+        this.drawFirsts.flip();
+        this.drawCounts.flip();
+        GL14.glMultiDrawArrays(mode, this.drawFirsts, this.drawCounts);
+        this.drawFirsts.clear();
+        this.drawCounts.clear();
+    }
+
+    public void deleteGlBuffers() {
+        if (this.glBufferId >= 0) {
+            OpenGlHelper.glDeleteBuffers(this.glBufferId);
+            this.glBufferId = -1;
+        }
+    }
+
+    private void grow(int vertices) {
+        int newCapacity = Math.max(MIN_CAPACITY, Math.max(this.capacity * 2, this.capacity + vertices));
+        int newBuffer = OpenGlHelper.glGenBuffers();
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, newBuffer);
+        OpenGlHelper.glBufferData(OpenGlHelper.GL_ARRAY_BUFFER, (long) newCapacity * this.stride, GL_DYNAMIC_DRAW);
+        OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+
+        if (this.capacity > 0) {
+            OpenGlHelper.glCopyBufferSubData(this.glBufferId, newBuffer, 0L, 0L, (long) this.capacity * this.stride);
+        }
+
+        this.deleteGlBuffers();
+        this.glBufferId = newBuffer;
+        this.addFreeRange(this.capacity, newCapacity - this.capacity);
+        this.capacity = newCapacity;
+    }
+
+    private void addFreeRange(int start, int length) {
+        Map.Entry<Integer, Integer> before = this.freeRanges.floorEntry(start);
+
+        if (before != null && before.getKey() + before.getValue() == start) {
+            start = before.getKey();
+            length += before.getValue();
+        }
+
+        Integer after = this.freeRanges.get(start + length);
+
+        if (after != null) {
+            this.freeRanges.remove(start + length);
+            length += after;
+        }
+
+        this.freeRanges.put(start, length);
+    }
+
+    private static IntBuffer grow(IntBuffer buffer) {
+        IntBuffer grown = GLAllocation.createDirectIntBuffer(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -15,6 +15,18 @@ public class VertexBuffer {
         this.glBufferId = OpenGlHelper.glGenBuffers();
     }
 
+    /**
+     * For buffers whose data is kept in a shared buffer, they don't get a GL buffer of their own
+     */
+    protected VertexBuffer(VertexFormat vertexFormatIn, boolean ownBuffer) {
+        this.vertexFormat = vertexFormatIn;
+        this.glBufferId = ownBuffer ? OpenGlHelper.glGenBuffers() : -1;
+    }
+
+    public VertexFormat getVertexFormat() {
+        return this.vertexFormat;
+    }
+
     public void bindBuffer() {
         OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, this.glBufferId);
     }
@@ -1,7 +1,6 @@
 package net.minecraft.network;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.DecoderException;
@@ -14,6 +13,11 @@ public class NettyCompressionDecoder extends ByteToMessageDecoder {
     private final Inflater inflater;
     private int treshold;
 
+    /**
+     * Reused for compressed frames that don't come in a heap buffer, the inflater can only read arrays
+     */
+    private byte[] input = new byte[8192];
+
     public NettyCompressionDecoder(int treshold) {
         this.treshold = treshold;
         this.inflater = new Inflater();
@@ -25,7 +29,8 @@ public class NettyCompressionDecoder extends ByteToMessageDecoder {
             int i = packetbuffer.readVarIntFromBuffer();
 
             if (i == 0) {
-                p_decode_3_.add(packetbuffer.readBytes(packetbuffer.readableBytes()));
+                // uncompressed, pass the rest of the frame on without copying it
+                p_decode_3_.add(p_decode_2_.readSlice(p_decode_2_.readableBytes()).retain());
             } else {
                 if (i < this.treshold) {
                     throw new DecoderException("Badly compressed packet - size of " + i + " is below server threshold of " + this.treshold);
@@ -35,17 +40,50 @@ public class NettyCompressionDecoder extends ByteToMessageDecoder {
                     throw new DecoderException("Badly compressed packet - size of " + i + " is larger than protocol maximum of " + 2097152);
                 }
 
-                byte[] abyte = new byte[packetbuffer.readableBytes()];
-                packetbuffer.readBytes(abyte);
-                this.inflater.setInput(abyte);
-                byte[] abyte1 = new byte[i];
-                this.inflater.inflate(abyte1);
-                p_decode_3_.add(Unpooled.wrappedBuffer(abyte1));
-                this.inflater.reset();
+                int j = p_decode_2_.readableBytes();
+
+                if (p_decode_2_.hasArray()) {
+                    this.inflater.setInput(p_decode_2_.array(), p_decode_2_.arrayOffset() + p_decode_2_.readerIndex(), j);
+                } else {
+                    if (this.input.length < j) {
+                        this.input = new byte[Math.max(j, this.input.length * 2)];
+                    }
+
+                    p_decode_2_.getBytes(p_decode_2_.readerIndex(), this.input, 0, j);
+                    this.inflater.setInput(this.input, 0, j);
+                }
+
+                p_decode_2_.skipBytes(j);
+
+                // inflated straight into the array of a pooled buffer, which the next decoder releases
+                ByteBuf bytebuf = p_decode_1_.alloc().heapBuffer(i, i);
+
+                try {
+                    int k = this.inflater.inflate(bytebuf.array(), bytebuf.arrayOffset(), i);
+
+                    if (k != i) {
+                        throw new DecoderException("Badly compressed packet - actual length of uncompressed payload " + k + " does not match declared size " + i);
+                    }
+
+                    bytebuf.writerIndex(i);
+                    p_decode_3_.add(bytebuf);
+                    bytebuf = null;
+                } finally {
+                    if (bytebuf != null) {
+                        bytebuf.release();
+                    }
+
+                    this.inflater.reset();
+                }
             }
         }
     }
 
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        // frees the native zlib stream now instead of whenever the inflater gets finalized
+        this.inflater.end();
+    }
+
     public void setCompressionTreshold(int treshold) {
         this.treshold = treshold;
     }
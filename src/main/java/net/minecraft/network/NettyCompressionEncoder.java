@@ -7,15 +7,25 @@ import io.netty.handler.codec.MessageToByteEncoder;
 import java.util.zip.Deflater;
 
 public class NettyCompressionEncoder extends MessageToByteEncoder<ByteBuf> {
-    private final byte[] buffer = new byte[8192];
     private final Deflater deflater;
     private int treshold;
 
+    /**
+     * Reused for packets that don't come in a heap buffer, the deflater can only read arrays
+     */
+    private byte[] input = new byte[8192];
+
     public NettyCompressionEncoder(int treshold) {
         this.treshold = treshold;
         this.deflater = new Deflater();
     }
 
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) throws Exception {
+        // heap, so packets can be deflated straight into the buffer's array; sized for the usual case where
+        // deflating doesn't make the packet any bigger (it grows otherwise)
+        return ctx.alloc().heapBuffer(msg.readableBytes() + 8);
+    }
+
     protected void encode(ChannelHandlerContext p_encode_1_, ByteBuf p_encode_2_, ByteBuf p_encode_3_) throws Exception {
         int i = p_encode_2_.readableBytes();
         PacketBuffer packetbuffer = new PacketBuffer(p_encode_3_);
@@ -24,21 +34,39 @@ public class NettyCompressionEncoder extends MessageToByteEncoder<ByteBuf> {
             packetbuffer.writeVarIntToBuffer(0);
             packetbuffer.writeBytes(p_encode_2_);
         } else {
-            byte[] abyte = new byte[i];
-            p_encode_2_.readBytes(abyte);
-            packetbuffer.writeVarIntToBuffer(abyte.length);
-            this.deflater.setInput(abyte, 0, i);
+            packetbuffer.writeVarIntToBuffer(i);
+
+            if (p_encode_2_.hasArray()) {
+                this.deflater.setInput(p_encode_2_.array(), p_encode_2_.arrayOffset() + p_encode_2_.readerIndex(), i);
+            } else {
+                if (this.input.length < i) {
+                    this.input = new byte[Math.max(i, this.input.length * 2)];
+                }
+
+                p_encode_2_.getBytes(p_encode_2_.readerIndex(), this.input, 0, i);
+                this.deflater.setInput(this.input, 0, i);
+            }
+
+            p_encode_2_.skipBytes(i);
             this.deflater.finish();
 
             while (!this.deflater.finished()) {
-                int j = this.deflater.deflate(this.buffer);
-                packetbuffer.writeBytes((byte[]) this.buffer, 0, j);
+                p_encode_3_.ensureWritable(256);
+
+                int j = this.deflater.deflate(p_encode_3_.array(), p_encode_3_.arrayOffset() + p_encode_3_.writerIndex(), p_encode_3_.writableBytes());
+                p_encode_3_.writerIndex(p_encode_3_.writerIndex() + j);
             }
 
             this.deflater.reset();
         }
     }
 
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        // frees the native zlib stream now instead of whenever the deflater gets finalized
+        this.deflater.end();
+        super.handlerRemoved(ctx);
+    }
+
     public void setCompressionTreshold(int treshold) {
         this.treshold = treshold;
     }
@@ -46,6 +46,9 @@ import javax.crypto.SecretKey;
 import java.net.InetAddress;
 import java.net.SocketAddress;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -79,6 +82,21 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
             return new LocalEventLoopGroup(0, new ThreadFactoryBuilder().setNameFormat("Netty Local Client IO #%d").setDaemon(true).build());
         }
     };
+
+    /**
+     * When set, packets are only written to the channel when they are sent and flushed together. The client flushes
+     * at the end of its tick through {@link #flushOutbound()}, after the clicks and the movement packets were sent,
+     * and {@link #processReceivedPackets()} flushes the replies of the packet handlers. Packets sent outside the tick
+     * are flushed once the oldest of them waited {@link #flushBudgetNanos}. Saves a syscall and usually a TCP segment
+     * per packet when a tick sends several.
+     */
+    public static volatile boolean coalesceFlushes = true;
+    public static volatile long flushBudgetNanos = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private static final LongAdder flushCount = new LongAdder();
+    private static final LongAdder flushedPacketCount = new LongAdder();
+    private static final LongAccumulator maxPacketsPerFlush = new LongAccumulator(Math::max, 0L);
+
     private final EnumPacketDirection direction;
     private final Queue<NetworkManager.InboundHandlerTuplePacketListener> outboundPacketsQueue = Queues.newConcurrentLinkedQueue();
     private final ReentrantReadWriteLock field_181680_j = new ReentrantReadWriteLock();
@@ -105,6 +123,11 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
     private boolean isEncrypted;
     private boolean disconnected;
 
+    /**
+     * Packets written since the last flush, only accessed on the channel's event loop
+     */
+    private int unflushedPackets;
+
     public NetworkManager(EnumPacketDirection packetDirection) {
         this.direction = packetDirection;
     }
@@ -147,10 +170,12 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
     }
 
     protected void channelRead0(ChannelHandlerContext p_channelRead0_1_, Packet p_channelRead0_2_) {
-        PacketEvent event = new PacketEvent(p_channelRead0_2_, PacketEvent.State.INCOMING);
+        PacketEvent event = PacketEvent.acquire(p_channelRead0_2_, PacketEvent.State.INCOMING);
         if (direction == CLIENTBOUND) EventManager.call(event);
+        final boolean cancelled = event.isCancelled();
+        event.release();
 
-        if (!event.isCancelled()) {
+        if (!cancelled) {
             if (channel.isOpen()) {
                 try {
                     p_channelRead0_2_.processPacket(packetListener);
@@ -161,10 +186,12 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
     }
 
     public void sendPacket(Packet packetIn) {
-        PacketEvent event = new PacketEvent(packetIn, PacketEvent.State.OUTGOING);
+        PacketEvent event = PacketEvent.acquire(packetIn, PacketEvent.State.OUTGOING);
         if (direction == CLIENTBOUND) EventManager.call(event);
+        final boolean cancelled = event.isCancelled();
+        event.release();
 
-        if (!event.isCancelled()) {
+        if (!cancelled) {
             if (isChannelOpen()) {
                 flushOutboundQueue();
                 dispatchPacket(packetIn, null);
@@ -217,8 +244,8 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
     }
 
     /**
-     * Will commit the packet to the channel. If the current thread 'owns' the channel it will write and flush the
-     * packet, otherwise it will add a task for the channel eventloop thread to do that.
+     * Will commit the packet to the channel. If the current thread 'owns' the channel it will write (and, unless
+     * flushes are coalesced, flush) the packet, otherwise it will add a task for the channel eventloop thread to do that.
      */
 
     private void dispatchPacket(Packet inPacket,
@@ -248,7 +275,19 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
             setConnectionState(packetProtocol);
         }
 
-        ChannelFuture channelFuture = channel.writeAndFlush(inPacket);
+        final ChannelFuture channelFuture;
+
+        if (coalesceFlushes) {
+            channelFuture = channel.write(inPacket);
+
+            if (unflushedPackets++ == 0) {
+                channel.eventLoop().schedule(this::flushPackets, flushBudgetNanos, TimeUnit.NANOSECONDS);
+            }
+        } else {
+            channelFuture = channel.writeAndFlush(inPacket);
+            recordFlush(unflushedPackets + 1);
+            unflushedPackets = 0;
+        }
 
         if (futureListeners != null) {
             channelFuture.addListeners(futureListeners);
@@ -287,7 +326,58 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
             ((ITickable) packetListener).update();
         }
 
-        channel.flush();
+        if (coalesceFlushes) {
+            flushOutbound();
+        } else {
+            channel.flush();
+        }
+    }
+
+    /**
+     * Flushes the packets sent so far when flushes are coalesced. Called by the client at the end of its tick.
+     */
+    public void flushOutbound() {
+        if (coalesceFlushes && channel != null && channel.isOpen()) {
+            // queued behind the writes sent so far, so it flushes all of them
+            channel.eventLoop().execute(this::flushPackets);
+        }
+    }
+
+    /**
+     * Flushes the packets written since the last flush. Must be called on the channel's event loop.
+     */
+    private void flushPackets() {
+        final int packets = unflushedPackets;
+
+        if (packets != 0) {
+            unflushedPackets = 0;
+            channel.flush();
+            recordFlush(packets);
+        }
+    }
+
+    private static void recordFlush(int packets) {
+        flushCount.increment();
+        flushedPacketCount.add(packets);
+        maxPacketsPerFlush.accumulate(packets);
+    }
+
+    public static long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public static long getFlushedPacketCount() {
+        return flushedPacketCount.sum();
+    }
+
+    public static long getMaxPacketsPerFlush() {
+        return maxPacketsPerFlush.get();
+    }
+
+    public static void resetFlushCounters() {
+        flushCount.reset();
+        flushedPacketCount.reset();
+        maxPacketsPerFlush.reset();
     }
 
     /**
@@ -304,6 +394,11 @@ public class NetworkManager extends SimpleChannelInboundHandler<Packet> {
         Channel channel = this.channel;
 
         if (channel.isOpen()) {
+            if (coalesceFlushes) {
+                // closing drops whatever wasn't flushed yet, like a packet sent right before disconnecting
+                channel.flush();
+            }
+
             channel.close().awaitUninterruptibly();
             this.terminationReason = message;
         }
@@ -5,7 +5,7 @@ import net.minecraft.util.IThreadListener;
 public class PacketThreadUtil {
     public static <T extends INetHandler> void checkThreadAndEnqueue(final Packet<T> packetIn, final T processor, IThreadListener scheduler) throws ThreadQuickExitException {
         if (!scheduler.isCallingFromMinecraftThread()) {
-            scheduler.addScheduledTask(() -> packetIn.processPacket(processor));
+            scheduler.scheduleTask(() -> packetIn.processPacket(processor));
             throw ThreadQuickExitException.INSTANCE;
         }
     }
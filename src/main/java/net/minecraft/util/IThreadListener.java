@@ -5,5 +5,13 @@ import com.google.common.util.concurrent.ListenableFuture;
 public interface IThreadListener {
     ListenableFuture<Object> addScheduledTask(Runnable runnableToSchedule);
 
+    /**
+     * Like addScheduledTask, for callers that don't need the future: listeners with a lock-free task queue
+     * enqueue the task as is instead of wrapping it in a future task.
+     */
+    default void scheduleTask(Runnable task) {
+        addScheduledTask(task);
+    }
+
     boolean isCallingFromMinecraftThread();
 }
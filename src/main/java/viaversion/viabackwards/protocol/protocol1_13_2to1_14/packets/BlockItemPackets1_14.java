@@ -426,11 +426,7 @@ public class BlockItemPackets1_14 extends viaversion.viabackwards.api.rewriters.
                             }
                         }
 
-                        for (int j = 0; j < section.getPaletteSize(); j++) {
-                            int old = section.getPaletteEntry(j);
-                            int newId = protocol.getMappingData().getNewBlockStateId(old);
-                            section.setPaletteEntry(j, newId);
-                        }
+                        section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                     }
                 });
             }
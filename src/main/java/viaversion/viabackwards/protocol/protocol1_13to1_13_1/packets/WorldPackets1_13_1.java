@@ -28,9 +28,7 @@ public class WorldPackets1_13_1 {
 
                         for (ChunkSection section : chunk.getSections()) {
                             if (section != null) {
-                                for (int i = 0; i < section.getPaletteSize(); i++) {
-                                    section.setPaletteEntry(i, protocol.getMappingData().getNewBlockStateId(section.getPaletteEntry(i)));
-                                }
+                                section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                             }
                         }
                     }
@@ -86,11 +86,7 @@ public class BlockItemPackets1_15 extends viaversion.viabackwards.api.rewriters.
                         for (int i = 0; i < chunk.getSections().length; i++) {
                             ChunkSection section = chunk.getSections()[i];
                             if (section == null) continue;
-                            for (int j = 0; j < section.getPaletteSize(); j++) {
-                                int old = section.getPaletteEntry(j);
-                                int newId = protocol.getMappingData().getNewBlockStateId(old);
-                                section.setPaletteEntry(j, newId);
-                            }
+                            section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                         }
                     }
                 });
@@ -134,10 +134,7 @@ public class BlockItemPackets1_16 extends viaversion.viabackwards.api.rewriters.
                     for (int i = 0; i < chunk.getSections().length; i++) {
                         ChunkSection section = chunk.getSections()[i];
                         if (section == null) continue;
-                        for (int j = 0; j < section.getPaletteSize(); j++) {
-                            int old = section.getPaletteEntry(j);
-                            section.setPaletteEntry(j, protocol.getMappingData().getNewBlockStateId(old));
-                        }
+                        section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                     }
 
                     CompoundTag heightMaps = chunk.getHeightMap();
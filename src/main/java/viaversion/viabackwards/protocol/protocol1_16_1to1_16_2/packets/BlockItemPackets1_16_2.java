@@ -71,10 +71,7 @@ public class BlockItemPackets1_16_2 extends viaversion.viabackwards.api.rewriter
                     for (int i = 0; i < chunk.getSections().length; i++) {
                         ChunkSection section = chunk.getSections()[i];
                         if (section == null) continue;
-                        for (int j = 0; j < section.getPaletteSize(); j++) {
-                            int old = section.getPaletteEntry(j);
-                            section.setPaletteEntry(j, protocol.getMappingData().getNewBlockStateId(old));
-                        }
+                        section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                     }
 
                     for (CompoundTag blockEntity : chunk.getBlockEntities()) {
@@ -44,18 +44,14 @@ public class VRDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf bytebuf, List<Object> out) throws Exception {
         info.checkOutgoingPacket();
-        if (!info.shouldTransformPacket()) {
+        if (!info.shouldTransformPacket() || !info.isOutgoingTransformed(bytebuf)) {
             out.add(bytebuf.retain());
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            info.transformOutgoing(transformedBuf, CancelDecoderException::generate);
-            out.add(transformedBuf.retain());
-        } finally {
-            transformedBuf.release();
-        }
+        // The frame is only ours, so it's rewritten in place unless the transformed packet doesn't fit
+        ByteBuf transformedBuf = info.transformOutgoingInPlace(bytebuf, CancelDecoderException::generate);
+        out.add(transformedBuf == bytebuf ? bytebuf.retain() : transformedBuf);
     }
 
     @Override
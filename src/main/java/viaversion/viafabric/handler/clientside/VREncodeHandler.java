@@ -19,22 +19,13 @@ public class VREncodeHandler extends MessageToMessageEncoder<ByteBuf> {
 	@Override
 	protected void encode(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> out) throws Exception {
 		if(!info.checkIncomingPacket()) throw CancelEncoderException.generate(null);
-		if(!info.shouldTransformPacket()) {
+		if(!info.shouldTransformPacket() || !info.isIncomingTransformed(byteBuf)) {
 			out.add(byteBuf.retain());
 			return;
 		}
 
-		/*ByteBuf copy = byteBuf.copy();
-		PacketBuffer packetBuffer = new PacketBuffer(copy);
-		int packetId = packetBuffer.readVarIntFromBuffer();*/
-
-		ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(byteBuf);
-		try {
-			info.transformIncoming(transformedBuf, CancelEncoderException::generate);
-			out.add(transformedBuf.retain());
-		} finally {
-			transformedBuf.release();
-		}
+		ByteBuf transformedBuf = info.transformIncomingInPlace(byteBuf, CancelEncoderException::generate);
+		out.add(transformedBuf == byteBuf ? byteBuf.retain() : transformedBuf);
 	}
 
 	@Override
@@ -109,6 +109,12 @@ public class Protocol1_7_6_10TO1_8 extends Protocol {
 		});
 	}
 
+	@Override
+	public boolean handlesPacket(Direction direction, State state, int packetId) {
+		// The compression handlers are swapped on the first packet after Set Compression, whatever it is
+		return true;
+	}
+
 	@Override
 	public void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
 		CompressionSendStorage compressionSendStorage = packetWrapper.user().get(CompressionSendStorage.class);
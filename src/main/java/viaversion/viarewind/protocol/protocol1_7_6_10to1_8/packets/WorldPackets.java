@@ -44,12 +44,7 @@ public class WorldPackets {
 						packetWrapper.write(new Chunk1_7_10Type(world), chunk);
 						for (ChunkSection section : chunk.getSections()){
 							if (section == null) continue;
-							for (int i = 0; i < section.getPaletteSize(); i++) {
-								int block = section.getPaletteEntry(i);
-								BlockState state = BlockState.rawToState(block);
-								state = ReplacementRegistry1_7_6_10to1_8.replace(state);
-								section.setPaletteEntry(i, BlockState.stateToRaw(state));
-							}
+							section.remapPalette(block -> BlockState.stateToRaw(ReplacementRegistry1_7_6_10to1_8.replace(BlockState.rawToState(block))));
 						}
 					}
 				});
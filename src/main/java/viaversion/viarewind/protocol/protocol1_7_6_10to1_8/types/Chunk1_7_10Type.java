@@ -36,22 +36,18 @@ public class Chunk1_7_10Type extends PartialType<Chunk, ClientWorld> {
         for (int i = 0; i < chunk.getSections().length; i++) {
             if ((chunk.getBitmask() & 1 << i) == 0) continue;
             ChunkSection section = chunk.getSections()[i];
-            for (int y = 0; y < 16; y++) {
-                for (int z = 0; z < 16; z++) {
-                    int previousData = 0;
-                    for (int x = 0; x < 16; x++) {
-                        int block = section.getFlatBlock(x, y, z);
-                        dataToCompress.writeByte(block >> 4);
-
-                        int data = block & 0xF;
-                        if (x % 2 == 0) {
-                            previousData = data;
-                        } else {
-                            blockData.writeByte((data << 4) | previousData);
-                        }
-                    }
-                }
+            int[] palette = section.copyPalette();
+            byte[] ids = new byte[ChunkSection.SIZE];
+            byte[] meta = new byte[ChunkSection.SIZE / 2];
+            for (int index = 0; index < ChunkSection.SIZE; index += 2) {
+                int block = palette[section.getPaletteIndex(index)];
+                int nextBlock = palette[section.getPaletteIndex(index + 1)];
+                ids[index] = (byte) (block >> 4);
+                ids[index + 1] = (byte) (nextBlock >> 4);
+                meta[index >> 1] = (byte) ((nextBlock & 0xF) << 4 | block & 0xF);
             }
+            dataToCompress.writeBytes(ids);
+            blockData.writeBytes(meta);
         }
         dataToCompress.writeBytes(blockData);
         blockData.release();
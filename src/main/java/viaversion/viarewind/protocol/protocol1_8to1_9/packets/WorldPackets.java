@@ -173,12 +173,7 @@ public class WorldPackets {
 
                     for (ChunkSection section : chunk.getSections()) {
                         if (section == null) continue;
-                        for (int i = 0; i < section.getPaletteSize(); i++) {
-                            int block = section.getPaletteEntry(i);
-                            BlockState state = BlockState.rawToState(block);
-                            state = ReplacementRegistry1_8to1_9.replace(state);
-                            section.setPaletteEntry(i, BlockState.stateToRaw(state));
-                        }
+                        section.remapPalette(block -> BlockState.stateToRaw(ReplacementRegistry1_8to1_9.replace(BlockState.rawToState(block))));
                     }
 
                     if (chunk.isFullChunk() && chunk
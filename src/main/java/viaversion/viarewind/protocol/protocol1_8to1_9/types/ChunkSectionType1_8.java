@@ -20,25 +20,31 @@ public class ChunkSectionType1_8 extends Type<ChunkSection> {
 		buffer.readBytes(blockData);
 		ShortBuffer blockBuf = ByteBuffer.wrap(blockData).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
 
-		for(int i = 0; i < 4096; ++i) {
-			int mask = blockBuf.get();
-			int type = mask >> 4;
-			int data = mask & 15;
-			chunkSection.setBlock(i, type, data);
+		// Blocks come in runs, so the palette only has to be looked up when the block changes
+		int lastBlock = 0;
+		int lastIndex = -1;
+		for (int i = 0; i < 4096; ++i) {
+			int block = blockBuf.get();
+			if (block != lastBlock || lastIndex == -1) {
+				chunkSection.setFlatBlock(i, block);
+				lastBlock = block;
+				lastIndex = chunkSection.getPaletteIndex(i);
+			} else {
+				chunkSection.setPaletteIndex(i, lastIndex);
+			}
 		}
 
 		return chunkSection;
 	}
 
 	public void write(ByteBuf buffer, ChunkSection chunkSection) throws Exception {
-		for (int y = 0; y < 16; y++) {
-			for (int z = 0; z < 16; z++) {
-				for (int x = 0; x < 16; x++) {
-					int block = chunkSection.getFlatBlock(x, y, z);
-					buffer.writeByte(block);
-					buffer.writeByte(block >> 8);
-				}
-			}
+		int[] palette = chunkSection.copyPalette();
+		byte[] blockData = new byte[8192];
+		for (int i = 0; i < 4096; i++) {
+			int block = palette[chunkSection.getPaletteIndex(i)];
+			blockData[i << 1] = (byte) block;
+			blockData[(i << 1) + 1] = (byte) (block >> 8);
 		}
+		buffer.writeBytes(blockData);
 	}
 }
@@ -23,6 +23,17 @@ public class PacketWrapper {
 
     public static final int PASSTHROUGH_ID = 1000;
     private static final Protocol[] PROTOCOL_ARRAY = new Protocol[0];
+    /**
+     * Value of a part passed through by {@link #passthroughLazy(Type)} that wasn't read yet. The bytes of unread parts
+     * are still at the reader index of the input buffer, in the order of the packet values followed by the readable
+     * objects.
+     */
+    private static final Object UNREAD = new Object() {
+        @Override
+        public String toString() {
+            return "<unread>";
+        }
+    };
 
     private final ByteBuf inputBuffer;
     private final UserConnection userConnection;
@@ -30,6 +41,7 @@ public class PacketWrapper {
     private int id = -1;
     private final LinkedList<Pair<Type, Object>> readableObjects = new LinkedList<>();
     private final List<Pair<Type, Object>> packetValues = new ArrayList<>();
+    private int unreadValues; // unread parts in packetValues
 
     public PacketWrapper(int packetID, ByteBuf inputBuffer, UserConnection userConnection) {
         this.id = packetID;
@@ -51,6 +63,9 @@ public class PacketWrapper {
         for (Pair<Type, Object> packetValue : packetValues) {
             if (packetValue.getKey() == type) { // Ref check
                 if (currentIndex == index) {
+                    if (packetValue.getValue() == UNREAD) {
+                        readUnread(packetValue);
+                    }
                     return (T) packetValue.getValue();
                 }
                 currentIndex++;
@@ -116,6 +131,9 @@ public class PacketWrapper {
         for (Pair<Type, Object> packetValue : packetValues) {
             if (packetValue.getKey() == type) { // Ref check
                 if (currentIndex == index) {
+                    if (packetValue.getValue() == UNREAD) {
+                        readUnread(packetValue); // skip its bytes
+                    }
                     packetValue.setValue(value);
                     return;
                 }
@@ -138,16 +156,16 @@ public class PacketWrapper {
         if (type == Type.NOTHING) return null;
         if (readableObjects.isEmpty()) {
             Preconditions.checkNotNull(inputBuffer, "This packet does not have an input buffer.");
-            // We could in the future log input read values, but honestly for things like bulk maps, mem waste D:
-            try {
-                return type.read(inputBuffer);
-            } catch (Exception e) {
-                throw new InformativeException(e).set("Type", type.getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
-            }
+            readUnread(null);
+            return readInput(type);
         } else {
             Pair<Type, Object> read = readableObjects.poll();
             Type rtype = read.getKey();
             if (rtype.equals(type) || (type.getBaseClass().equals(rtype.getBaseClass()) && type.getOutputClass().equals(rtype.getOutputClass()))) {
+                if (read.getValue() == UNREAD) {
+                    readUnread(null);
+                    return (T) readInput(rtype);
+                }
                 return (T) read.getValue();
             } else {
                 if (rtype == Type.NOTHING) {
@@ -160,6 +178,35 @@ public class PacketWrapper {
         }
     }
 
+    /**
+     * Read a type from the input buffer, the packet values must not have unread parts.
+     */
+    private <T> T readInput(Type<T> type) throws Exception {
+        // We could in the future log input read values, but honestly for things like bulk maps, mem waste D:
+        try {
+            return type.read(inputBuffer);
+        } catch (Exception e) {
+            throw new InformativeException(e).set("Type", type.getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
+        }
+    }
+
+    /**
+     * Read the unread parts of the output from the input buffer, up to and including the given one.
+     *
+     * @param last The last part to read, or null to read all of them
+     */
+    private void readUnread(Pair<Type, Object> last) throws Exception {
+        if (unreadValues == 0) return;
+
+        for (Pair<Type, Object> packetValue : packetValues) {
+            if (packetValue.getValue() == UNREAD) {
+                packetValue.setValue(readInput(packetValue.getKey()));
+                if (--unreadValues == 0) return;
+            }
+            if (packetValue == last) return;
+        }
+    }
+
     /**
      * Write a type to the output.
      *
@@ -195,6 +242,32 @@ public class PacketWrapper {
         return value;
     }
 
+    /**
+     * Take a value from the input and write it to the output without reading it.
+     * The value is only read if it is asked for later on, otherwise its bytes are copied as they are.
+     *
+     * @param type The type to pass through.
+     * @throws Exception If it failed to read or write
+     */
+    public void passthroughLazy(Type<?> type) throws Exception {
+        if (type != Type.NOTHING && inputBuffer != null) {
+            if (readableObjects.isEmpty()) {
+                packetValues.add(new Pair<>(type, UNREAD));
+                unreadValues++;
+                return;
+            }
+
+            Pair<Type, Object> next = readableObjects.peek();
+            if (next.getValue() == UNREAD && next.getKey() == type) {
+                packetValues.add(readableObjects.poll());
+                unreadValues++;
+                return;
+            }
+        }
+
+        passthrough(type);
+    }
+
     /**
      * Take all the inputs and write them to the output.
      *
@@ -202,11 +275,10 @@ public class PacketWrapper {
      */
     public void passthroughAll() throws Exception {
         // Copy previous objects
-        packetValues.addAll(readableObjects);
-        readableObjects.clear();
+        moveReadableObjects();
         // If the buffer has readable bytes, copy them.
         if (inputBuffer.readableBytes() > 0) {
-            passthrough(Type.REMAINING_BYTES);
+            passthroughLazy(Type.REMAINING_BYTES);
         }
     }
 
@@ -220,15 +292,27 @@ public class PacketWrapper {
         if (id != -1) {
             Type.VAR_INT.writePrimitive(buffer, id);
         }
-        if (!readableObjects.isEmpty()) {
-            packetValues.addAll(readableObjects);
-            readableObjects.clear();
+        moveReadableObjects();
+
+        // Unread parts after the last read one are copied along with the rest of the input
+        int written = packetValues.size();
+        while (written > 0 && packetValues.get(written - 1).getValue() == UNREAD) {
+            written--;
         }
 
-        int index = 0;
-        for (Pair<Type, Object> packetValue : packetValues) {
+        for (int index = 0; index < written; index++) {
+            Pair<Type, Object> packetValue = packetValues.get(index);
             try {
                 Object value = packetValue.getValue();
+                if (value == UNREAD) {
+                    // Its bytes come next in the input, the value is read to find where they end
+                    int start = inputBuffer.readerIndex();
+                    packetValue.setValue(packetValue.getKey().read(inputBuffer));
+                    unreadValues--;
+                    buffer.writeBytes(inputBuffer, start, inputBuffer.readerIndex() - start);
+                    continue;
+                }
+
                 if (value != null) {
                     if (!packetValue.getKey().getOutputClass().isAssignableFrom(value.getClass())) {
                         // attempt conversion
@@ -243,15 +327,33 @@ public class PacketWrapper {
             } catch (Exception e) {
                 throw new InformativeException(e).set("Index", index).set("Type", packetValue.getKey().getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
             }
-            index++;
         }
         writeRemaining(buffer);
     }
 
+    private void moveReadableObjects() {
+        if (readableObjects.isEmpty()) return;
+
+        for (Pair<Type, Object> readableObject : readableObjects) {
+            if (readableObject.getValue() == UNREAD) {
+                unreadValues++;
+            }
+        }
+        packetValues.addAll(readableObjects);
+        readableObjects.clear();
+    }
+
     /**
      * Clear the input buffer / readable objects
+     *
+     * @throws Exception If it failed to read the unread parts of the output
      */
-    public void clearInputBuffer() {
+    public void clearInputBuffer() throws Exception {
+        readUnread(null);
+        clearInput();
+    }
+
+    private void clearInput() {
         if (inputBuffer != null) {
             inputBuffer.clear();
         }
@@ -262,8 +364,9 @@ public class PacketWrapper {
      * Clear the packet, used if you have to change the packet completely
      */
     public void clearPacket() {
-        clearInputBuffer();
+        clearInput();
         packetValues.clear();
+        unreadValues = 0;
     }
 
     private void writeRemaining(ByteBuf output) {
@@ -493,6 +596,11 @@ public class PacketWrapper {
         // Move all packet values to the readable for next packet.
         this.readableObjects.addAll(packetValues);
         this.packetValues.clear();
+        this.unreadValues = 0;
+        // Unread parts at the end are read straight from the input buffer, which starts with them
+        while (!readableObjects.isEmpty() && readableObjects.getLast().getValue() == UNREAD) {
+            readableObjects.removeLast();
+        }
     }
 
     /**
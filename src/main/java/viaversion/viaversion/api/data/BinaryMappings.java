@@ -0,0 +1,357 @@
+package viaversion.viaversion.api.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary form of the bundled json mapping files, which is much faster to load than parsing the json.
+ * <p>
+ * The files are converted at build time by running {@link #main(String[])} over the data folder. A file holds a
+ * string table, the lengths of the strings and all of them as one UTF-8 block, followed by the json tree in which
+ * strings are indices into the table. Objects keyed by consecutive
+ * ids and arrays of ints, which make up most of the mappings, are stored without any strings at all.
+ */
+public final class BinaryMappings {
+
+    private static final int MAGIC = 0x5649414D; // VIAM
+    private static final int VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+    private static final int STRING = 3;
+    private static final int NUMBER = 4;
+    private static final int TRUE = 5;
+    private static final int FALSE = 6;
+    private static final int INDEXED_OBJECT = 7;
+    private static final int INT_ARRAY = 8;
+
+    private BinaryMappings() {
+    }
+
+    /**
+     * @return The name of the binary file for a json file, or null if it isn't one
+     */
+    @Nullable
+    public static String binaryName(String name) {
+        return name.endsWith(".json") ? name.substring(0, name.length() - ".json".length()) + ".bin" : null;
+    }
+
+    /**
+     * Maps the file into memory if the resource is a plain file, else reads it.
+     */
+    public static ByteBuffer open(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException | IllegalArgumentException ignored) {
+                // Read it like any other resource
+            }
+        }
+
+        try (InputStream stream = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    public static JsonElement read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) throw new IOException("Not a binary mapping file");
+        int version = buffer.get();
+        if (version != VERSION) throw new IOException("Unsupported binary mapping version " + version);
+
+        // The strings are decoded in one go and then cut apart, which is a lot faster than decoding each of them
+        String[] strings = new String[readVarInt(buffer)];
+        int[] lengths = new int[strings.length];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = readVarInt(buffer);
+        }
+
+        byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        String table = new String(bytes, StandardCharsets.UTF_8);
+        int offset = 0;
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = table.substring(offset, offset += lengths[i]);
+        }
+
+        return readElement(buffer, strings);
+    }
+
+    private static JsonElement readElement(ByteBuffer buffer, String[] strings) throws IOException {
+        int type = buffer.get();
+        switch (type) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case OBJECT: {
+                JsonObject object = new JsonObject();
+                int size = readVarInt(buffer);
+                for (int i = 0; i < size; i++) {
+                    String key = strings[readVarInt(buffer)];
+                    object.add(key, readElement(buffer, strings));
+                }
+                return object;
+            }
+            case INDEXED_OBJECT: {
+                JsonObject object = new JsonObject();
+                int start = readZigZag(buffer);
+                int size = readVarInt(buffer);
+                for (int i = 0; i < size; i++) {
+                    object.add(Integer.toString(start + i), readElement(buffer, strings));
+                }
+                return object;
+            }
+            case ARRAY: {
+                int size = readVarInt(buffer);
+                JsonArray array = new JsonArray();
+                for (int i = 0; i < size; i++) {
+                    array.add(readElement(buffer, strings));
+                }
+                return array;
+            }
+            case INT_ARRAY: {
+                int size = readVarInt(buffer);
+                JsonArray array = new JsonArray();
+                for (int i = 0; i < size; i++) {
+                    array.add(new JsonPrimitive(readZigZag(buffer)));
+                }
+                return array;
+            }
+            case STRING:
+                return new JsonPrimitive(strings[readVarInt(buffer)]);
+            case NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(strings[readVarInt(buffer)]));
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            default:
+                throw new IOException("Unknown element type " + type);
+        }
+    }
+
+    public static void write(JsonElement element, OutputStream output) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        collectStrings(element, strings);
+
+        // The elements are written a byte at a time
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeVarInt(out, strings.size());
+        StringBuilder table = new StringBuilder();
+        for (String string : strings.keySet()) {
+            writeVarInt(out, string.length());
+            table.append(string);
+        }
+        byte[] bytes = table.toString().getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+
+        writeElement(out, element, strings);
+        out.flush();
+    }
+
+    private static void collectStrings(JsonElement element, Map<String, Integer> strings) {
+        if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            boolean indexed = indexStart(object) != null;
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                if (!indexed) {
+                    strings.putIfAbsent(entry.getKey(), strings.size());
+                }
+                collectStrings(entry.getValue(), strings);
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            if (isIntArray(array)) return;
+
+            for (JsonElement value : array) {
+                collectStrings(value, strings);
+            }
+        } else if (element.isJsonPrimitive() && !element.getAsJsonPrimitive().isBoolean()) {
+            strings.putIfAbsent(element.getAsString(), strings.size());
+        }
+    }
+
+    private static void writeElement(DataOutputStream out, JsonElement element, Map<String, Integer> strings) throws IOException {
+        if (element.isJsonNull()) {
+            out.writeByte(NULL);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            Integer start = indexStart(object);
+            if (start != null) {
+                out.writeByte(INDEXED_OBJECT);
+                writeZigZag(out, start);
+                writeVarInt(out, object.size());
+                for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                    writeElement(out, entry.getValue(), strings);
+                }
+            } else {
+                out.writeByte(OBJECT);
+                writeVarInt(out, object.size());
+                for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                    writeVarInt(out, strings.get(entry.getKey()));
+                    writeElement(out, entry.getValue(), strings);
+                }
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            boolean intArray = isIntArray(array);
+            out.writeByte(intArray ? INT_ARRAY : ARRAY);
+            writeVarInt(out, array.size());
+            for (JsonElement value : array) {
+                if (intArray) {
+                    writeZigZag(out, value.getAsInt());
+                } else {
+                    writeElement(out, value, strings);
+                }
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else {
+                out.writeByte(primitive.isNumber() ? NUMBER : STRING);
+                writeVarInt(out, strings.get(primitive.getAsString()));
+            }
+        }
+    }
+
+    /**
+     * @return The first key if the keys of the object are consecutive ints in order, else null
+     */
+    @Nullable
+    private static Integer indexStart(JsonObject object) {
+        if (object.size() == 0) return null;
+
+        Integer start = null;
+        int expected = 0;
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            String key = entry.getKey();
+            int value;
+            try {
+                value = Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            // Keys like "01" or "+1" wouldn't come back the same
+            if (!key.equals(Integer.toString(value))) return null;
+
+            if (start == null) {
+                start = value;
+            } else if (value != expected) {
+                return null;
+            }
+            expected = value + 1;
+        }
+        return start;
+    }
+
+    private static boolean isIntArray(JsonArray array) {
+        if (array.size() == 0) return false;
+
+        for (JsonElement element : array) {
+            if (!element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber()) return false;
+
+            String string = element.getAsString();
+            try {
+                if (!string.equals(Integer.toString(Integer.parseInt(string)))) return false;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int readZigZag(ByteBuffer buffer) {
+        int value = readVarInt(buffer);
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void writeZigZag(DataOutputStream out, int value) throws IOException {
+        writeVarInt(out, value << 1 ^ value >> 31);
+    }
+
+    /**
+     * Converts every json file in a folder, used by the build.
+     *
+     * @param args the folder with the json files and the folder to write the binary files to
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryMappings <json folder> <output folder>");
+            System.exit(1);
+        }
+
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Couldn't create " + output);
+        }
+
+        File[] files = input.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) throw new IOException("Couldn't list " + input);
+
+        for (File file : files) {
+            JsonElement element;
+            try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8)) {
+                element = new JsonParser().parse(reader);
+            }
+
+            try (OutputStream out = Files.newOutputStream(new File(output, binaryName(file.getName())).toPath())) {
+                write(element, out);
+            }
+        }
+    }
+}
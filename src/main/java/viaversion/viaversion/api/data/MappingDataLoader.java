@@ -17,8 +17,10 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 public class MappingDataLoader {
 
@@ -91,6 +93,14 @@ public class MappingDataLoader {
             }
         }
 
+        JsonObject binary = loadBinaryData(name);
+        if (binary != null) {
+            if (cacheIfEnabled && cacheJsonMappings) {
+                MAPPINGS_CACHE.put(name, binary);
+            }
+            return binary;
+        }
+
         InputStream stream = getResource(name);
         if (stream == null) return null;
 
@@ -110,6 +120,25 @@ public class MappingDataLoader {
         }
     }
 
+    /**
+     * Loads the binary form of a bundled json file made by {@link BinaryMappings}, if it is present.
+     */
+    @Nullable
+    private static JsonObject loadBinaryData(String name) {
+        String binaryName = BinaryMappings.binaryName(name);
+        if (binaryName == null) return null;
+
+        URL url = MappingDataLoader.class.getClassLoader().getResource("assets/viaversion/data/" + binaryName);
+        if (url == null) return null;
+
+        try {
+            return BinaryMappings.read(BinaryMappings.open(url)).getAsJsonObject();
+        } catch (IOException | RuntimeException e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Couldn't load " + binaryName + ", falling back to the json mappings", e);
+            return null;
+        }
+    }
+
     public static void mapIdentifiers(Int2IntBiMap output, JsonObject oldIdentifiers, JsonObject newIdentifiers, @Nullable JsonObject diffIdentifiers) {
         Object2IntMap<String> newIdentifierMap = MappingDataLoader.indexedObjectToMap(newIdentifiers);
         for (Map.Entry<String, JsonElement> entry : oldIdentifiers.entrySet()) {
@@ -407,26 +407,130 @@ public class UserConnection {
 		transform(buf, clientSide ? Direction.OUTGOING : Direction.INCOMING, cancelSupplier);
 	}
 
+	/**
+	 * Like {@link #transformOutgoing(ByteBuf, Function)}, but the transformed packet is only written back into buf
+	 * if it fits into its max capacity, so buf doesn't have to be a growable copy.
+	 *
+	 * @param buf            ByteBuf with packet id and packet contents
+	 * @param cancelSupplier Function called with original CancelException for generating the Exception used when
+	 *                       packet is cancelled
+	 * @return buf, or a new ByteBuf owned by the caller if the transformed packet didn't fit
+	 * @throws CancelException      if the packet should be cancelled
+	 * @throws InformativeException if packet transforming failed
+	 * @throws Exception            if any other processing outside of transforming fails
+	 */
+	public ByteBuf transformOutgoingInPlace(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+		if (!buf.isReadable()) return buf;
+		return transformInPlace(buf, clientSide ? Direction.INCOMING : Direction.OUTGOING, cancelSupplier);
+	}
+
+	/**
+	 * Like {@link #transformIncoming(ByteBuf, Function)}, but the transformed packet is only written back into buf
+	 * if it fits into its max capacity, so buf doesn't have to be a growable copy.
+	 *
+	 * @param buf            ByteBuf with packet id and packet contents
+	 * @param cancelSupplier Function called with original CancelException for generating the Exception used when
+	 *                       packet is cancelled
+	 * @return buf, or a new ByteBuf owned by the caller if the transformed packet didn't fit
+	 * @throws CancelException      if the packet should be cancelled
+	 * @throws InformativeException if packet transforming failed
+	 * @throws Exception            if any other processing outside of transforming fails
+	 */
+	public ByteBuf transformIncomingInPlace(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+		if (!buf.isReadable()) return buf;
+		return transformInPlace(buf, clientSide ? Direction.OUTGOING : Direction.INCOMING, cancelSupplier);
+	}
+
+	/**
+	 * Checks if the outgoing packet contained in ByteBuf may be changed by the pipeline. If not, it can be passed on
+	 * as is. The reader index of buf is left untouched.
+	 *
+	 * @param buf ByteBuf with packet id and packet contents
+	 * @return false if transforming the packet would leave it unchanged
+	 */
+	public boolean isOutgoingTransformed(ByteBuf buf) {
+		return isTransformed(buf, clientSide ? Direction.INCOMING : Direction.OUTGOING);
+	}
+
+	/**
+	 * Checks if the incoming packet contained in ByteBuf may be changed by the pipeline. If not, it can be passed on
+	 * as is. The reader index of buf is left untouched.
+	 *
+	 * @param buf ByteBuf with packet id and packet contents
+	 * @return false if transforming the packet would leave it unchanged
+	 */
+	public boolean isIncomingTransformed(ByteBuf buf) {
+		return isTransformed(buf, clientSide ? Direction.OUTGOING : Direction.INCOMING);
+	}
+
+	private boolean isTransformed(ByteBuf buf, Direction direction) {
+		if (!buf.isReadable()) return false;
+
+		int id = peekVarInt(buf);
+		// Passthrough packets still have their marker ID stripped, and the debug log wants to see every packet
+		if (id == PacketWrapper.PASSTHROUGH_ID || id == -1 || Via.getManager().isDebug()) return true;
+
+		return protocolInfo.getPipeline().handlesPacket(direction, protocolInfo.getState(), id);
+	}
+
+	/**
+	 * @return the VarInt at the reader index of buf, or -1 if it isn't complete
+	 */
+	private static int peekVarInt(ByteBuf buf) {
+		int value = 0;
+		for (int i = 0, index = buf.readerIndex(); i < 5 && index + i < buf.writerIndex(); i++) {
+			byte b = buf.getByte(index + i);
+			value |= (b & 0x7F) << (i * 7);
+			if ((b & 0x80) == 0) return value;
+		}
+		return -1;
+	}
+
 	private void transform(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
-		int id = Type.VAR_INT.readPrimitive(buf);
-		if (id == PacketWrapper.PASSTHROUGH_ID) return;
+		PacketWrapper wrapper = transformPacket(buf, direction, cancelSupplier);
+		if (wrapper == null) return;
 
-		PacketWrapper wrapper = new PacketWrapper(id, buf, this);
+		ByteBuf transformed = buf.alloc().buffer();
 		try {
-			protocolInfo.getPipeline().transform(direction, protocolInfo.getState(), wrapper);
-		} catch (CancelException ex) {
-			throw cancelSupplier.apply(ex);
+			wrapper.writeToBuffer(transformed);
+			buf.clear().writeBytes(transformed);
+		} finally {
+			transformed.release();
 		}
+	}
+
+	private ByteBuf transformInPlace(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+		PacketWrapper wrapper = transformPacket(buf, direction, cancelSupplier);
+		if (wrapper == null) return buf;
 
 		ByteBuf transformed = buf.alloc().buffer();
 		try {
 			wrapper.writeToBuffer(transformed);
+			if (transformed.readableBytes() > buf.maxCapacity()) {
+				return transformed.retain();
+			}
+
 			buf.clear().writeBytes(transformed);
+			return buf;
 		} finally {
 			transformed.release();
 		}
 	}
 
+	@Nullable
+	private PacketWrapper transformPacket(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+		int id = Type.VAR_INT.readPrimitive(buf);
+		if (id == PacketWrapper.PASSTHROUGH_ID) return null;
+
+		PacketWrapper wrapper = new PacketWrapper(id, buf, this);
+		try {
+			protocolInfo.getPipeline().transform(direction, protocolInfo.getState(), wrapper);
+		} catch (CancelException ex) {
+			throw cancelSupplier.apply(ex);
+		}
+		return wrapper;
+	}
+
 	public long getId() {
 		return id;
 	}
@@ -7,6 +7,8 @@ import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.IntUnaryOperator;
+
 public class ChunkSection {
 
     /**
@@ -129,6 +131,32 @@ public class ChunkSection {
         }
     }
 
+    /**
+     * Remap every block in the section by remapping the palette, the block indices stay untouched.
+     * Entries may end up with the same id, they are kept as they are.
+     *
+     * @param mapper Maps an old id to the new one
+     */
+    public void remapPalette(IntUnaryOperator mapper) {
+        inversePalette.clear();
+        for (int i = 0; i < palette.size(); i++) {
+            int id = mapper.applyAsInt(palette.getInt(i));
+            palette.set(i, id);
+            if (!inversePalette.containsKey(id)) {
+                inversePalette.put(id, i);
+            }
+        }
+    }
+
+    /**
+     * Copy the palette, to look up many blocks at once with {@link #getPaletteIndex(int)}
+     *
+     * @return The ids of the palette entries
+     */
+    public int[] copyPalette() {
+        return palette.toIntArray();
+    }
+
     public void addPaletteEntry(int id) {
         inversePalette.put(id, palette.size());
         palette.add(id);
@@ -0,0 +1,182 @@
+package viaversion.viaversion.api.protocol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.Nullable;
+import viaversion.viaversion.api.PacketWrapper;
+import viaversion.viaversion.packets.Direction;
+import viaversion.viaversion.packets.State;
+
+/**
+ * The handlers of a list of protocols flattened into one table per direction and state, so a pipeline doesn't
+ * have to ask every protocol about every packet.
+ * <p>
+ * A table maps the ID a packet enters the pipeline with to the handlers that apply to it, in the order the pipeline
+ * runs them. If a handler changes the packet ID on its own the rest of the path isn't known up front, and the
+ * remaining protocols are walked one by one like before.
+ * Compiled pipelines only depend on their protocols, so they are shared by all pipelines made of the same ones.
+ */
+final class CompiledPipeline {
+
+    private static final Map<List<Protocol>, CompiledPipeline> CACHE = new ConcurrentHashMap<>();
+    private static final Step[] NO_STEPS = new Step[0];
+
+    private final Protocol[] protocols;
+    private final Table[][] tables = new Table[Direction.values().length][State.values().length];
+
+    private CompiledPipeline(Protocol[] protocols) {
+        this.protocols = protocols;
+
+        boolean[] customTransform = new boolean[protocols.length];
+        for (int i = 0; i < protocols.length; i++) {
+            customTransform[i] = hasCustomTransform(protocols[i]);
+        }
+
+        for (Direction direction : Direction.values()) {
+            for (State state : State.values()) {
+                tables[direction.ordinal()][state.ordinal()] = compile(direction, state, customTransform);
+            }
+        }
+    }
+
+    /**
+     * @param protocols The protocols in pipeline order, the array must not be changed afterwards
+     * @return The compiled pipeline for the protocols
+     */
+    static CompiledPipeline of(Protocol[] protocols) {
+        return CACHE.computeIfAbsent(Arrays.asList(protocols), key -> new CompiledPipeline(protocols));
+    }
+
+    /**
+     * Runs every protocol that handles the packet, like {@link PacketWrapper#apply(Direction, State, int, List, boolean)}
+     * with the whole pipeline would.
+     */
+    void apply(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
+        Table table = tables[direction.ordinal()][state.ordinal()];
+        int id = packetWrapper.getId();
+        if (id < 0 || id >= table.offsets.length - 1) {
+            walk(direction, state, packetWrapper, direction == Direction.OUTGOING ? protocols.length - 1 : 0);
+            return;
+        }
+
+        for (int i = table.offsets[id], end = table.offsets[id + 1]; i < end; i++) {
+            Step step = table.steps[i];
+            if (step.protocolPacket != null) {
+                step.protocol.transform(direction, state, packetWrapper, step.protocolPacket);
+            } else {
+                step.protocol.transform(direction, state, packetWrapper);
+            }
+            packetWrapper.resetReader();
+
+            if (packetWrapper.getId() != step.resultId) {
+                // The handler set another ID than the registered one, the path after it has to be looked up
+                walk(direction, state, packetWrapper, direction == Direction.OUTGOING ? step.index - 1 : step.index + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return True if any protocol handles the packet
+     */
+    boolean handlesPacket(Direction direction, State state, int packetId) {
+        Table table = tables[direction.ordinal()][state.ordinal()];
+        if (packetId >= 0 && packetId < table.offsets.length - 1) {
+            return table.offsets[packetId + 1] != table.offsets[packetId];
+        }
+
+        for (Protocol protocol : protocols) {
+            if (protocol.handlesPacket(direction, state, packetId)) return true;
+        }
+        return false;
+    }
+
+    private void walk(Direction direction, State state, PacketWrapper packetWrapper, int index) throws Exception {
+        if (direction == Direction.OUTGOING) {
+            for (int i = index; i >= 0; i--) {
+                protocols[i].transform(direction, state, packetWrapper);
+                packetWrapper.resetReader();
+            }
+        } else {
+            for (int i = index; i < protocols.length; i++) {
+                protocols[i].transform(direction, state, packetWrapper);
+                packetWrapper.resetReader();
+            }
+        }
+    }
+
+    private Table compile(Direction direction, State state, boolean[] customTransform) {
+        int maxId = -1;
+        for (Protocol protocol : protocols) {
+            maxId = Math.max(maxId, protocol.getMaxPacketId(direction, state));
+        }
+
+        int[] offsets = new int[maxId + 2];
+        List<Step> steps = new ArrayList<>();
+        for (int id = 0; id <= maxId; id++) {
+            offsets[id] = steps.size();
+
+            // Follow the packet through the pipeline, its ID only changes in protocols that handle it
+            int packetId = id;
+            for (int n = 0; n < protocols.length; n++) {
+                int index = direction == Direction.OUTGOING ? protocols.length - 1 - n : n;
+                Protocol protocol = protocols[index];
+                if (!protocol.handlesPacket(direction, state, packetId)) continue;
+
+                Protocol.ProtocolPacket protocolPacket = protocol.getProtocolPacket(direction, state, packetId);
+                int resultId = protocolPacket == null ? packetId
+                        : direction == Direction.OUTGOING ? protocolPacket.getNewID() : protocolPacket.getOldID();
+
+                steps.add(new Step(protocol, index, customTransform[index] ? null : protocolPacket, resultId));
+                packetId = resultId;
+            }
+        }
+        offsets[maxId + 1] = steps.size();
+
+        return new Table(offsets, steps.isEmpty() ? NO_STEPS : steps.toArray(NO_STEPS));
+    }
+
+    private static boolean hasCustomTransform(Protocol protocol) {
+        try {
+            return protocol.getClass().getMethod("transform", Direction.class, State.class, PacketWrapper.class)
+                    .getDeclaringClass() != Protocol.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private static final class Table {
+        /**
+         * Steps of the packet with ID i are steps[offsets[i]] to steps[offsets[i + 1] - 1]
+         */
+        private final int[] offsets;
+        private final Step[] steps;
+
+        private Table(int[] offsets, Step[] steps) {
+            this.offsets = offsets;
+            this.steps = steps;
+        }
+    }
+
+    private static final class Step {
+        private final Protocol protocol;
+        private final int index;
+        /**
+         * Null if the protocol overrides {@link Protocol#transform(Direction, State, PacketWrapper)} or has no handler
+         * registered for the packet, it is run through its transform method then
+         */
+        @Nullable
+        private final Protocol.ProtocolPacket protocolPacket;
+        private final int resultId;
+
+        private Step(Protocol protocol, int index, @Nullable Protocol.ProtocolPacket protocolPacket, int resultId) {
+            this.protocol = protocol;
+            this.index = index;
+            this.protocolPacket = protocolPacket;
+            this.resultId = resultId;
+        }
+    }
+}
@@ -380,6 +380,37 @@ public abstract class Protocol<C1 extends ClientboundPacketType, C2 extends Clie
         return incoming.containsKey(packet);
     }
 
+    @Nullable
+    ProtocolPacket getProtocolPacket(Direction direction, State state, int packetId) {
+        return (direction == Direction.OUTGOING ? outgoing : incoming).get(new Packet(state, packetId));
+    }
+
+    /**
+     * @return the highest packet ID with a handler in the given direction and state, or -1 if there is none
+     */
+    int getMaxPacketId(Direction direction, State state) {
+        int maxId = -1;
+        for (Packet packet : (direction == Direction.OUTGOING ? outgoing : incoming).keySet()) {
+            if (packet.getState() == state) {
+                maxId = Math.max(maxId, packet.getPacketId());
+            }
+        }
+        return maxId;
+    }
+
+    /**
+     * Checks if this protocol has to see a packet. A packet that no protocol of a pipeline has to see leaves it
+     * unchanged, so it doesn't need to be read at all.
+     *
+     * @param direction direction the packet is going in
+     * @param state     state which the packet is sent in
+     * @param packetId  packet ID as it reaches this protocol
+     * @return true if transforming the packet may change or cancel it
+     */
+    public boolean handlesPacket(Direction direction, State state, int packetId) {
+        return direction == Direction.OUTGOING ? hasRegisteredOutgoing(state, packetId) : hasRegisteredIncoming(state, packetId);
+    }
+
     /**
      * Transform a packet using this protocol
      *
@@ -389,13 +420,24 @@ public abstract class Protocol<C1 extends ClientboundPacketType, C2 extends Clie
      * @throws Exception Throws exception if it fails to transform
      */
     public void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
-        Packet statePacket = new Packet(state, packetWrapper.getId());
-        Map<Packet, ProtocolPacket> packetMap = (direction == Direction.OUTGOING ? outgoing : incoming);
-        ProtocolPacket protocolPacket = packetMap.get(statePacket);
+        ProtocolPacket protocolPacket = getProtocolPacket(direction, state, packetWrapper.getId());
         if (protocolPacket == null) {
             return;
         }
 
+        transform(direction, state, packetWrapper, protocolPacket);
+    }
+
+    /**
+     * Transform a packet with a handler of this protocol that was already looked up
+     *
+     * @param direction      The direction the packet is going in
+     * @param state          The current protocol state
+     * @param packetWrapper  The packet wrapper to transform
+     * @param protocolPacket The handler registered for the packet
+     * @throws Exception Throws exception if it fails to transform
+     */
+    void transform(Direction direction, State state, PacketWrapper packetWrapper, ProtocolPacket protocolPacket) throws Exception {
         // Write packet id
         int oldId = packetWrapper.getId();
         int newId = direction == Direction.OUTGOING ? protocolPacket.getNewID() : protocolPacket.getOldID();
@@ -16,6 +16,7 @@ public class ProtocolPipeline extends SimpleProtocol {
 
     private List<Protocol> protocolList;
     private UserConnection userConnection;
+    private volatile CompiledPipeline compiled;
 
     public ProtocolPipeline(UserConnection userConnection) {
         init(userConnection);
@@ -24,6 +25,7 @@ public class ProtocolPipeline extends SimpleProtocol {
     @Override
     protected void registerPackets() {
         protocolList = new CopyOnWriteArrayList<>();
+        compiled = null;
         // This is a pipeline so we register basic pipes
         protocolList.add(ProtocolRegistry.BASE_PROTOCOL);
     }
@@ -62,6 +64,7 @@ public class ProtocolPipeline extends SimpleProtocol {
             }
             protocolList.removeAll(toMove);
             protocolList.addAll(toMove);
+            compiled = null;
         } else {
             throw new NullPointerException("Tried to add protocol too early");
         }
@@ -72,7 +75,7 @@ public class ProtocolPipeline extends SimpleProtocol {
         int originalID = packetWrapper.getId();
 
         // Apply protocols
-        packetWrapper.apply(direction, state, 0, protocolList, direction == Direction.OUTGOING);
+        compiled().apply(direction, state, packetWrapper);
         super.transform(direction, state, packetWrapper);
 
         if(Via.getManager().isDebug()) {
@@ -80,6 +83,29 @@ public class ProtocolPipeline extends SimpleProtocol {
         }
     }
 
+    /**
+     * Check if any protocol in the pipeline has to see a packet.
+     * If none has, the packet leaves the pipeline as it came in, so it can be passed on without being read.
+     *
+     * @param direction The direction the packet is going in
+     * @param state     The current protocol state
+     * @param packetId  The ID of the packet
+     * @return True if transforming the packet may change or cancel it
+     */
+    @Override
+    public boolean handlesPacket(Direction direction, State state, int packetId) {
+        return compiled().handlesPacket(direction, state, packetId);
+    }
+
+    private CompiledPipeline compiled() {
+        CompiledPipeline compiled = this.compiled;
+        if(compiled == null) {
+            // Compiled pipelines are cached, so this is only slow for the first connection with these versions
+            this.compiled = compiled = CompiledPipeline.of(protocolList.toArray(new Protocol[0]));
+        }
+        return compiled;
+    }
+
     private void logPacket(Direction direction, State state, PacketWrapper packetWrapper, int originalID) {
         // Debug packet
         int clientProtocol = userConnection.getProtocolInfo().getProtocolVersion();
@@ -23,8 +23,12 @@ public abstract class PacketRemapper {
      * @param type Type to map
      */
     public void map(Type type) {
-        TypeRemapper remapper = new TypeRemapper(type);
-        map(remapper, remapper);
+        // The value isn't used here, so it's only read if a handler asks for it
+        map(wrapper -> {
+            wrapper.passthroughLazy(type);
+            return null;
+        }, (wrapper, value) -> {
+        });
     }
 
     /**
@@ -20,11 +20,18 @@ public class ChunkSectionType1_8 extends Type<ChunkSection> {
 
         ByteBuf littleEndianView = buffer.order(ByteOrder.LITTLE_ENDIAN);
 
+        // Blocks come in runs, so the palette only has to be looked up when the block changes
+        int lastBlock = 0;
+        int lastIndex = -1;
         for (int i = 0; i < ChunkSection.SIZE; i++) {
-            int mask = littleEndianView.readShort();
-            int type = mask >> 4;
-            int data = mask & 0xF;
-            chunkSection.setBlock(i, type, data);
+            int block = littleEndianView.readShort();
+            if (block != lastBlock || lastIndex == -1) {
+                chunkSection.setFlatBlock(i, block);
+                lastBlock = block;
+                lastIndex = chunkSection.getPaletteIndex(i);
+            } else {
+                chunkSection.setPaletteIndex(i, lastIndex);
+            }
         }
 
         return chunkSection;
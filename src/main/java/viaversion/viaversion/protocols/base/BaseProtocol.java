@@ -89,6 +89,12 @@ public class BaseProtocol extends SimpleProtocol {
         providers.register(VersionProvider.class, new VersionProvider());
     }
 
+    @Override
+    public boolean handlesPacket(Direction direction, State state, int packetId) {
+        // Every incoming handshake packet is checked below
+        return direction == Direction.INCOMING && state == State.HANDSHAKE || super.handlesPacket(direction, state, packetId);
+    }
+
     @Override
     public void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
         super.transform(direction, state, packetWrapper);
@@ -28,9 +28,7 @@ public class WorldPackets {
 
                         for (ChunkSection section : chunk.getSections()) {
                             if (section == null) continue;
-                            for (int i = 0; i < section.getPaletteSize(); i++) {
-                                section.setPaletteEntry(i, protocol.getMappingData().getNewBlockStateId(section.getPaletteEntry(i)));
-                            }
+                            section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                         }
                     }
                 });
@@ -20,6 +20,8 @@ import viaversion.viaversion.api.remapper.ValueTransformer;
 import viaversion.viaversion.api.rewriters.MetadataRewriter;
 import viaversion.viaversion.api.rewriters.SoundRewriter;
 import viaversion.viaversion.api.type.Type;
+import viaversion.viaversion.exception.CancelException;
+import viaversion.viaversion.packets.Direction;
 import viaversion.viaversion.packets.State;
 import viaversion.viaversion.protocols.protocol1_12_1to1_12.ClientboundPackets1_12_1;
 import viaversion.viaversion.protocols.protocol1_12_1to1_12.ServerboundPackets1_12_1;
@@ -39,6 +41,7 @@ import viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.BlockEntit
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.PaintingProvider;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
+import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.ChunkTranslationQueue;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.EntityTracker1_13;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.TabCompleteTracker;
 import viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
@@ -1036,6 +1039,7 @@ public class Protocol1_13To1_12_2 extends Protocol<ClientboundPackets1_12_1, Cli
         if (!userConnection.has(ClientWorld.class))
             userConnection.put(new ClientWorld(userConnection));
         userConnection.put(new BlockStorage(userConnection));
+        userConnection.put(new ChunkTranslationQueue(userConnection));
         if (Via.getConfig().isServersideBlockConnections()) {
             if (Via.getManager().getProviders().get(BlockConnectionProvider.class) instanceof PacketBlockConnectionProvider) {
                 userConnection.put(new BlockConnectionStorage(userConnection));
@@ -1043,6 +1047,18 @@ public class Protocol1_13To1_12_2 extends Protocol<ClientboundPackets1_12_1, Cli
         }
     }
 
+    @Override
+    public void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
+        if (direction == Direction.OUTGOING && state == State.PLAY) {
+            ChunkTranslationQueue queue = packetWrapper.user().get(ChunkTranslationQueue.class);
+            if (queue != null && !queue.isEmpty() && WorldPackets.holdBackForChunk(queue, packetWrapper)) {
+                throw CancelException.generate();
+            }
+        }
+
+        super.transform(direction, state, packetWrapper);
+    }
+
     @Override
     protected void register(ViaProviders providers) {
         providers.register(BlockEntityProvider.class, new BlockEntityProvider());
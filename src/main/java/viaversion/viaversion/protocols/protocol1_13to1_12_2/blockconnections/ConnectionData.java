@@ -61,6 +61,8 @@ public class ConnectionData {
         for(int chunkDeltaX = -1; chunkDeltaX <= 1; chunkDeltaX++) {
             for(int chunkDeltaZ = -1; chunkDeltaZ <= 1; chunkDeltaZ++) {
                 if(Math.abs(chunkDeltaX) + Math.abs(chunkDeltaZ) == 0) continue;
+                // Blocks that aren't known are air, nothing in the section can connect
+                if(!blockConnectionProvider.hasBlocks(user, chunkX + chunkDeltaX, chunkSectionY, chunkZ + chunkDeltaZ)) continue;
 
                 List<BlockChangeRecord1_8> updates = new ArrayList<>();
 
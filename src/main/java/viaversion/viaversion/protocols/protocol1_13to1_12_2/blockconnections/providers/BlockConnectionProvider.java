@@ -31,6 +31,13 @@ public class BlockConnectionProvider implements Provider {
 
     }
 
+    /**
+     * @return false if no block of the chunk section is known, none of them can connect then
+     */
+    public boolean hasBlocks(UserConnection connection, int chunkX, int chunkSectionY, int chunkZ) {
+        return true;
+    }
+
     public boolean storesBlocks() {
         return false;
     }
@@ -30,6 +30,11 @@ public class PacketBlockConnectionProvider extends BlockConnectionProvider {
         connection.get(BlockConnectionStorage.class).unloadChunk(x, z);
     }
 
+    @Override
+    public boolean hasBlocks(UserConnection connection, int chunkX, int chunkSectionY, int chunkZ) {
+        return connection.get(BlockConnectionStorage.class).hasBlocks(chunkX, chunkSectionY, chunkZ);
+    }
+
     @Override
     public boolean storesBlocks() {
         return true;
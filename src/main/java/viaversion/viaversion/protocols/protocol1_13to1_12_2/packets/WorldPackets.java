@@ -1,6 +1,8 @@
 package viaversion.viaversion.protocols.protocol1_13to1_12_2.packets;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import viaversion.viaversion.api.PacketWrapper;
@@ -24,6 +26,7 @@ import viaversion.viaversion.protocols.protocol1_13to1_12_2.data.ParticleRewrite
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.BlockEntityProvider;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.PaintingProvider;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
+import viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.ChunkTranslationQueue;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.types.Chunk1_13Type;
 import viaversion.viaversion.protocols.protocol1_9_1_2to1_9_3_4.types.Chunk1_9_3_4Type;
 import viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
@@ -330,128 +333,46 @@ public class WorldPackets {
                 handler(new PacketHandler() {
                     @Override
                     public void handle(PacketWrapper wrapper) throws Exception {
-                        ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
-                        BlockStorage storage = wrapper.user().get(BlockStorage.class);
+                        UserConnection user = wrapper.user();
+                        ClientWorld clientWorld = user.get(ClientWorld.class);
+                        BlockStorage storage = user.get(BlockStorage.class);
+                        ChunkTranslationQueue queue = user.get(ChunkTranslationQueue.class);
 
                         Chunk1_9_3_4Type type = new Chunk1_9_3_4Type(clientWorld);
                         Chunk1_13Type type1_13 = new Chunk1_13Type(clientWorld);
                         Chunk chunk = wrapper.read(type);
-                        wrapper.write(type1_13, chunk);
 
-                        for (int i = 0; i < chunk.getSections().length; i++) {
-                            ChunkSection section = chunk.getSections()[i];
-                            if (section == null)
-                                continue;
+                        if (queue == null || user.getChannel() == null) {
+                            wrapper.write(type1_13, chunk);
+                            storeChunk(user, chunk, translateChunk(chunk, storage));
 
-                            for (int p = 0; p < section.getPaletteSize(); p++) {
-                                int old = section.getPaletteEntry(p);
-                                int newId = toNewId(old);
-                                section.setPaletteEntry(p, newId);
-                            }
-
-                            boolean willSaveToStorage = false;
-                            for (int p = 0; p < section.getPaletteSize(); p++) {
-                                int newId = section.getPaletteEntry(p);
-                                if (storage.isWelcome(newId)) {
-                                    willSaveToStorage = true;
-                                    break;
-                                }
-                            }
-
-                            boolean willSaveConnection = false;
-                            if (Via.getConfig().isServersideBlockConnections() && ConnectionData.needStoreBlocks()) {
-                                for (int p = 0; p < section.getPaletteSize(); p++) {
-                                    int newId = section.getPaletteEntry(p);
-                                    if (ConnectionData.isWelcome(newId)) {
-                                        willSaveConnection = true;
-                                        break;
-                                    }
-                                }
-                            }
-
-                            if (willSaveToStorage) {
-                                for (int y = 0; y < 16; y++) {
-                                    for (int z = 0; z < 16; z++) {
-                                        for (int x = 0; x < 16; x++) {
-                                            int block = section.getFlatBlock(x, y, z);
-                                            if (storage.isWelcome(block)) {
-                                                storage.store(new Position(
-                                                        (x + (chunk.getX() << 4)),
-                                                        (short) (y + (i << 4)),
-                                                        (z + (chunk.getZ() << 4))
-                                                ), block);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-
-                            if (willSaveConnection) {
-                                for (int y = 0; y < 16; y++) {
-                                    for (int z = 0; z < 16; z++) {
-                                        for (int x = 0; x < 16; x++) {
-                                            int block = section.getFlatBlock(x, y, z);
-                                            if (ConnectionData.isWelcome(block)) {
-                                                ConnectionData.blockConnectionProvider.storeBlock(wrapper.user(), x + (chunk.getX() << 4),
-                                                        y + (i << 4),
-                                                        z + (chunk.getZ() << 4),
-                                                        block);
-                                            }
-                                        }
-                                    }
-                                }
+                            if (Via.getConfig().isServersideBlockConnections()) {
+                                ConnectionData.connectBlocks(user, chunk);
+                                // Workaround for packet order issue
+                                wrapper.send(Protocol1_13To1_12_2.class, true, true);
+                                wrapper.cancel();
+                                updateNeighbours(user, chunk);
                             }
+                            return;
                         }
 
-                        // Rewrite biome id 255 to plains
-                        if (chunk.isBiomeData()) {
-                            int latestBiomeWarn = Integer.MIN_VALUE;
-                            for (int i = 0; i < 256; i++) {
-                                int biome = chunk.getBiomeData()[i];
-                                if (!VALID_BIOMES.contains(biome)) {
-                                    if (biome != 255 // is it generated naturally? *shrug*
-                                            && latestBiomeWarn != biome) {
-                                        if (!Via.getConfig().isSuppressConversionWarnings() || Via.getManager().isDebug()) {
-                                            Via.getPlatform().getLogger().warning("Received invalid biome id " + biome);
-                                        }
-                                        latestBiomeWarn = biome;
-                                    }
-                                    chunk.getBiomeData()[i] = 1; // Plains
-                                }
+                        // Remap on the worker pool, the chunk is sent once it's done
+                        int packetId = wrapper.getId();
+                        wrapper.cancel();
+                        queue.translate(ChunkTranslationQueue.key(chunk.getX(), chunk.getZ()), () -> translateChunk(chunk, storage), translated -> {
+                            storeChunk(user, chunk, translated);
+                            if (Via.getConfig().isServersideBlockConnections()) {
+                                ConnectionData.connectBlocks(user, chunk);
                             }
-                        }
-
-                        // Rewrite BlockEntities to normal blocks
-                        BlockEntityProvider provider = Via.getManager().getProviders().get(BlockEntityProvider.class);
-                        for (CompoundTag tag : chunk.getBlockEntities()) {
-                            int newId = provider.transform(wrapper.user(), null, tag, false);
-                            if (newId != -1) {
-                                int x = (int) tag.get("x").getValue();
-                                int y = (int) tag.get("y").getValue();
-                                int z = (int) tag.get("z").getValue();
-
-                                Position position = new Position(x, (short) y, z);
-                                // Store the replacement blocks for blockupdates
-                                BlockStorage.ReplacementData replacementData = storage.get(position);
-                                if (replacementData != null) {
-                                    replacementData.setReplacement(newId);
-                                }
 
-                                chunk.getSections()[y >> 4].setFlatBlock(x & 0xF, y & 0xF, z & 0xF, newId);
-                            }
-                        }
+                            PacketWrapper chunkPacket = new PacketWrapper(packetId, null, user);
+                            chunkPacket.write(type1_13, chunk);
+                            chunkPacket.send(Protocol1_13To1_12_2.class, true, true);
 
-                        if (Via.getConfig().isServersideBlockConnections()) {
-                            ConnectionData.connectBlocks(wrapper.user(), chunk);
-                            // Workaround for packet order issue
-                            wrapper.send(Protocol1_13To1_12_2.class, true, true);
-                            wrapper.cancel();
-                            for (int i = 0; i < chunk.getSections().length; i++) {
-                                ChunkSection section = chunk.getSections()[i];
-                                if (section == null) continue;
-                                ConnectionData.updateChunkSectionNeighbours(wrapper.user(), chunk.getX(), chunk.getZ(), i);
+                            if (Via.getConfig().isServersideBlockConnections()) {
+                                updateNeighbours(user, chunk);
                             }
-                        }
+                        });
                     }
                 });
             }
@@ -552,6 +473,175 @@ public class WorldPackets {
         return 1;
     }
 
+    /**
+     * Holds back a packet that touches a chunk which is still being translated, it is transformed once the chunk
+     * was sent. Packets changing the world wait for all chunks to be sent instead.
+     *
+     * @return true if the packet was held back and has to be cancelled
+     */
+    public static boolean holdBackForChunk(ChunkTranslationQueue queue, PacketWrapper wrapper) throws Exception {
+        int id = wrapper.getId();
+        if (id == ClientboundPackets1_12_1.JOIN_GAME.ordinal() || id == ClientboundPackets1_12_1.RESPAWN.ordinal()) {
+            queue.flush();
+            return false;
+        }
+
+        long key;
+        if (id == ClientboundPackets1_12_1.BLOCK_CHANGE.ordinal() || id == ClientboundPackets1_12_1.BLOCK_ACTION.ordinal()
+                || id == ClientboundPackets1_12_1.BLOCK_ENTITY_DATA.ordinal()) {
+            Position position = wrapper.passthrough(Type.POSITION);
+            key = ChunkTranslationQueue.key(position.getX() >> 4, position.getZ() >> 4);
+        } else if (id == ClientboundPackets1_12_1.MULTI_BLOCK_CHANGE.ordinal() || id == ClientboundPackets1_12_1.UNLOAD_CHUNK.ordinal()) {
+            key = ChunkTranslationQueue.key(wrapper.passthrough(Type.INT), wrapper.passthrough(Type.INT));
+        } else if (id == ClientboundPackets1_12_1.EXPLOSION.ordinal()) {
+            int x = (int) Math.floor(wrapper.passthrough(Type.FLOAT));
+            wrapper.passthrough(Type.FLOAT);
+            int z = (int) Math.floor(wrapper.passthrough(Type.FLOAT));
+            key = ChunkTranslationQueue.key(x >> 4, z >> 4);
+        } else {
+            return false;
+        }
+
+        // Put the read values back in front of the rest of the packet
+        wrapper.resetReader();
+        if (!queue.isTranslating(key)) {
+            return false;
+        }
+
+        queue.holdBack(key, wrapper);
+        return true;
+    }
+
+    /**
+     * Remaps the blocks and biomes of a chunk. Doesn't touch any state of the connection, so it can run on any thread.
+     */
+    private static TranslatedChunk translateChunk(Chunk chunk, BlockStorage storage) {
+        TranslatedChunk translated = new TranslatedChunk();
+        boolean storeConnections = Via.getConfig().isServersideBlockConnections() && ConnectionData.needStoreBlocks();
+
+        for (int i = 0; i < chunk.getSections().length; i++) {
+            ChunkSection section = chunk.getSections()[i];
+            if (section == null)
+                continue;
+
+            section.remapPalette(WorldPackets::toNewId);
+
+            boolean willSaveToStorage = false;
+            for (int p = 0; p < section.getPaletteSize(); p++) {
+                int newId = section.getPaletteEntry(p);
+                if (storage.isWelcome(newId)) {
+                    willSaveToStorage = true;
+                    break;
+                }
+            }
+
+            boolean willSaveConnection = false;
+            if (storeConnections) {
+                for (int p = 0; p < section.getPaletteSize(); p++) {
+                    int newId = section.getPaletteEntry(p);
+                    if (ConnectionData.isWelcome(newId)) {
+                        willSaveConnection = true;
+                        break;
+                    }
+                }
+            }
+
+            if (willSaveToStorage || willSaveConnection) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            int block = section.getFlatBlock(x, y, z);
+                            int index = i << 12 | y << 8 | z << 4 | x;
+                            if (willSaveToStorage && storage.isWelcome(block)) {
+                                translated.storedBlocks.add(index);
+                                translated.storedBlocks.add(block);
+                            }
+                            if (willSaveConnection && ConnectionData.isWelcome(block)) {
+                                translated.connectedBlocks.add(index);
+                                translated.connectedBlocks.add(block);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Rewrite biome id 255 to plains
+        if (chunk.isBiomeData()) {
+            int latestBiomeWarn = Integer.MIN_VALUE;
+            for (int i = 0; i < 256; i++) {
+                int biome = chunk.getBiomeData()[i];
+                if (!VALID_BIOMES.contains(biome)) {
+                    if (biome != 255 // is it generated naturally? *shrug*
+                            && latestBiomeWarn != biome) {
+                        if (!Via.getConfig().isSuppressConversionWarnings() || Via.getManager().isDebug()) {
+                            Via.getPlatform().getLogger().warning("Received invalid biome id " + biome);
+                        }
+                        latestBiomeWarn = biome;
+                    }
+                    chunk.getBiomeData()[i] = 1; // Plains
+                }
+            }
+        }
+        return translated;
+    }
+
+    /**
+     * Stores the blocks of a translated chunk that later packets need and rewrites its block entities.
+     * Must run on the event loop, in packet order.
+     */
+    private static void storeChunk(UserConnection user, Chunk chunk, TranslatedChunk translated) {
+        BlockStorage storage = user.get(BlockStorage.class);
+        int chunkX = chunk.getX() << 4;
+        int chunkZ = chunk.getZ() << 4;
+
+        for (int i = 0; i < translated.storedBlocks.size(); i += 2) {
+            int index = translated.storedBlocks.getInt(i);
+            storage.store(new Position(chunkX + (index & 0xF), (short) (index >> 8), chunkZ + (index >> 4 & 0xF)),
+                    translated.storedBlocks.getInt(i + 1));
+        }
+
+        for (int i = 0; i < translated.connectedBlocks.size(); i += 2) {
+            int index = translated.connectedBlocks.getInt(i);
+            ConnectionData.blockConnectionProvider.storeBlock(user, chunkX + (index & 0xF), index >> 8, chunkZ + (index >> 4 & 0xF),
+                    translated.connectedBlocks.getInt(i + 1));
+        }
+
+        // Rewrite BlockEntities to normal blocks
+        BlockEntityProvider provider = Via.getManager().getProviders().get(BlockEntityProvider.class);
+        for (CompoundTag tag : chunk.getBlockEntities()) {
+            int newId = provider.transform(user, null, tag, false);
+            if (newId != -1) {
+                int x = (int) tag.get("x").getValue();
+                int y = (int) tag.get("y").getValue();
+                int z = (int) tag.get("z").getValue();
+
+                Position position = new Position(x, (short) y, z);
+                // Store the replacement blocks for blockupdates
+                BlockStorage.ReplacementData replacementData = storage.get(position);
+                if (replacementData != null) {
+                    replacementData.setReplacement(newId);
+                }
+
+                chunk.getSections()[y >> 4].setFlatBlock(x & 0xF, y & 0xF, z & 0xF, newId);
+            }
+        }
+    }
+
+    private static void updateNeighbours(UserConnection user, Chunk chunk) {
+        for (int i = 0; i < chunk.getSections().length; i++) {
+            ChunkSection section = chunk.getSections()[i];
+            if (section == null) continue;
+            ConnectionData.updateChunkSectionNeighbours(user, chunk.getX(), chunk.getZ(), i);
+        }
+    }
+
+    private static final class TranslatedChunk {
+        // Pairs of the index in the chunk (section << 12 | y << 8 | z << 4 | x) and the block
+        private final IntList storedBlocks = new IntArrayList();
+        private final IntList connectedBlocks = new IntArrayList();
+    }
+
     private static int checkStorage(UserConnection user, Position position, int newId) {
         BlockStorage storage = user.get(BlockStorage.class);
         if (storage.contains(position)) {
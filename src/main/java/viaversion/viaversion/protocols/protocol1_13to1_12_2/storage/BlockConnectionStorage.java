@@ -1,35 +1,24 @@
 package viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 
-import viaversion.viaversion.api.Pair;
-import viaversion.viaversion.api.Via;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import viaversion.viaversion.api.data.StoredObject;
 import viaversion.viaversion.api.data.UserConnection;
-import viaversion.viaversion.api.minecraft.Position;
 import viaversion.viaversion.api.minecraft.chunks.NibbleArray;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import viaversion.viaversion.protocols.protocol1_13to1_12_2.packets.WorldPackets;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public class BlockConnectionStorage extends StoredObject {
     private static final short[] REVERSE_BLOCK_MAPPINGS = new short[8582];
-    private static Constructor<?> fastUtilLongObjectHashMap;
 
-    private final Map<Long, Pair<byte[], NibbleArray>> blockStorage = createLongObjectMap();
+    private final Long2ObjectMap<SectionData> blockStorage = new Long2ObjectOpenHashMap<>();
+    // Connection handlers look at the neighbours of a block, which are mostly in the same section
+    private long lastSectionIndex;
+    private SectionData lastSection;
 
     static {
-        try {
-            //noinspection StringBufferReplaceableByString - prevent relocation
-            String className = new StringBuilder("it").append(".unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap").toString();
-            fastUtilLongObjectHashMap = Class.forName(className).getConstructor();
-            Via.getPlatform().getLogger().info("Using FastUtil Long2ObjectOpenHashMap for block connections");
-        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
-        }
-
         Arrays.fill(REVERSE_BLOCK_MAPPINGS, (short) -1);
         for (int i = 0; i < 4096; i++) {
             int newBlock = Protocol1_13To1_12_2.MAPPINGS.getBlockMappings().getNewId(i);
@@ -47,99 +36,117 @@ public class BlockConnectionStorage extends StoredObject {
         short mapping = REVERSE_BLOCK_MAPPINGS[blockState];
         if (mapping == -1) return;
 
-        blockState = mapping;
-        long pair = getChunkSectionIndex(x, y, z);
-        Pair<byte[], NibbleArray> map = getChunkSection(pair, (blockState & 0xF) != 0);
-        int blockIndex = encodeBlockPos(x, y, z);
-        map.getKey()[blockIndex] = (byte) (blockState >> 4);
-        NibbleArray nibbleArray = map.getValue();
-        if (nibbleArray != null) {
-            nibbleArray.set(blockIndex, blockState);
+        long index = getChunkSectionIndex(x, y, z);
+        SectionData section = getSection(index);
+        if (section == null) {
+            if (mapping == 0) return;
+
+            section = new SectionData();
+            blockStorage.put(index, section);
+            lastSectionIndex = index;
+            lastSection = section;
+        }
+
+        section.set(encodeBlockPos(x, y, z), mapping);
+        if (section.isEmpty()) {
+            removeSection(index);
         }
     }
 
     public int get(int x, int y, int z) {
-        long pair = getChunkSectionIndex(x, y, z);
-        Pair<byte[], NibbleArray> map = blockStorage.get(pair);
-        if (map == null) return 0;
-        short blockPosition = encodeBlockPos(x, y, z);
-        NibbleArray nibbleArray = map.getValue();
-        return WorldPackets.toNewId(
-                ((map.getKey()[blockPosition] & 0xFF) << 4)
-                        | (nibbleArray == null ? 0 : nibbleArray.get(blockPosition))
-        );
+        SectionData section = getSection(getChunkSectionIndex(x, y, z));
+        if (section == null) return 0;
+        return WorldPackets.toNewId(section.get(encodeBlockPos(x, y, z)));
     }
 
     public void remove(int x, int y, int z) {
-        long pair = getChunkSectionIndex(x, y, z);
-        Pair<byte[], NibbleArray> map = blockStorage.get(pair);
-        if (map == null) return;
-        int blockIndex = encodeBlockPos(x, y, z);
-        NibbleArray nibbleArray = map.getValue();
-        if (nibbleArray != null) {
-            nibbleArray.set(blockIndex, 0);
-            boolean allZero = true;
-            for (int i = 0; i < 4096; i++) {
-                if (nibbleArray.get(i) != 0) {
-                    allZero = false;
-                    break;
-                }
-            }
-            if (allZero) map.setValue(null);
-        }
-        map.getKey()[blockIndex] = 0;
-        for (short entry : map.getKey()) {
-            if (entry != 0) return;
+        long index = getChunkSectionIndex(x, y, z);
+        SectionData section = getSection(index);
+        if (section == null) return;
+
+        section.set(encodeBlockPos(x, y, z), 0);
+        if (section.isEmpty()) {
+            removeSection(index);
         }
-        blockStorage.remove(pair);
+    }
+
+    /**
+     * @return true if any block of the chunk section is stored
+     */
+    public boolean hasBlocks(int chunkX, int chunkSectionY, int chunkZ) {
+        return getSection(getChunkSectionIndex(chunkX << 4, chunkSectionY << 4, chunkZ << 4)) != null;
     }
 
     public void clear() {
         blockStorage.clear();
+        lastSection = null;
     }
 
     public void unloadChunk(int x, int z) {
         for (int y = 0; y < 256; y += 16) {
-            blockStorage.remove(getChunkSectionIndex(x << 4, y, z << 4));
+            removeSection(getChunkSectionIndex(x << 4, y, z << 4));
         }
     }
 
-    private Pair<byte[], NibbleArray> getChunkSection(long index, boolean requireNibbleArray) {
-        Pair<byte[], NibbleArray> map = blockStorage.get(index);
-        if (map == null) {
-            map = new Pair<>(new byte[4096], null);
-            blockStorage.put(index, map);
+    private SectionData getSection(long index) {
+        if (lastSection != null && lastSectionIndex == index) {
+            return lastSection;
         }
-        if (map.getValue() == null && requireNibbleArray) {
-            map.setValue(new NibbleArray(4096));
+
+        SectionData section = blockStorage.get(index);
+        if (section != null) {
+            lastSectionIndex = index;
+            lastSection = section;
         }
-        return map;
+        return section;
     }
 
-    private long getChunkSectionIndex(int x, int y, int z) {
-        return (((x >> 4) & 0x3FFFFFFL) << 38) | (((y >> 4) & 0xFFFL) << 26) | ((z >> 4) & 0x3FFFFFFL);
+    private void removeSection(long index) {
+        blockStorage.remove(index);
+        if (lastSectionIndex == index) {
+            lastSection = null;
+        }
     }
 
-    private long getChunkSectionIndex(Position position) {
-        return getChunkSectionIndex(position.getX(), position.getY(), position.getZ());
+    private long getChunkSectionIndex(int x, int y, int z) {
+        return (((x >> 4) & 0x3FFFFFFL) << 38) | (((y >> 4) & 0xFFFL) << 26) | ((z >> 4) & 0x3FFFFFFL);
     }
 
     private short encodeBlockPos(int x, int y, int z) {
         return (short) (((y & 0xF) << 8) | ((x & 0xF) << 4) | (z & 0xF));
     }
 
-    private short encodeBlockPos(Position pos) {
-        return encodeBlockPos(pos.getX(), pos.getY(), pos.getZ());
-    }
+    /**
+     * Legacy ids of the stored blocks in a chunk section, 0 for blocks that aren't stored
+     */
+    private static final class SectionData {
+        private final byte[] blocks = new byte[4096];
+        // Only allocated once a block with data is stored
+        private NibbleArray data;
+        private int stored;
+
+        private int get(int index) {
+            return (blocks[index] & 0xFF) << 4 | (data == null ? 0 : data.get(index));
+        }
 
-    private <T> Map<Long, T> createLongObjectMap() {
-        if (fastUtilLongObjectHashMap != null) {
-            try {
-                return (Map<Long, T>) fastUtilLongObjectHashMap.newInstance();
-            } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-                e.printStackTrace();
+        private void set(int index, int legacyId) {
+            boolean wasStored = get(index) != 0;
+
+            blocks[index] = (byte) (legacyId >> 4);
+            if (data != null) {
+                data.set(index, legacyId & 0xF);
+            } else if ((legacyId & 0xF) != 0) {
+                data = new NibbleArray(4096);
+                data.set(index, legacyId & 0xF);
+            }
+
+            if (wasStored != (legacyId != 0)) {
+                stored += wasStored ? -1 : 1;
             }
         }
-        return new HashMap<>();
+
+        private boolean isEmpty() {
+            return stored == 0;
+        }
     }
 }
@@ -0,0 +1,154 @@
+package viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import viaversion.viaversion.api.PacketWrapper;
+import viaversion.viaversion.api.Via;
+import viaversion.viaversion.api.data.StoredObject;
+import viaversion.viaversion.api.data.UserConnection;
+import viaversion.viaversion.api.type.Type;
+import viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Keeps the packets of a connection in order around chunks that are translated on the worker pool.
+ * <p>
+ * Chunk data is remapped off the event loop, and finished on the event loop in the order the chunks came in, even if
+ * a later chunk is translated first. Packets touching a chunk that isn't finished yet are held back behind it,
+ * everything else keeps flowing. Must only be used from the event loop of the connection.
+ */
+public class ChunkTranslationQueue extends StoredObject {
+    private static final ThreadPoolExecutor WORKERS;
+
+    // Chunks and held back packets in the order they came in
+    private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+    // Number of queued tasks per chunk
+    private final Map<Long, Integer> pending = new HashMap<>();
+    private boolean replaying;
+
+    static {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        WORKERS = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("Via-Chunk-Translator-%d").setDaemon(true).build());
+        WORKERS.allowCoreThreadTimeOut(true);
+    }
+
+    public ChunkTranslationQueue(UserConnection user) {
+        super(user);
+    }
+
+    public static long key(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return true if packets touching the chunk have to wait for it
+     */
+    public boolean isTranslating(long key) {
+        return !replaying && pending.containsKey(key);
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Runs the translation on the worker pool and then the finisher on the event loop, after everything queued
+     * before it.
+     *
+     * @param translation work that doesn't touch any state of the connection
+     * @param finisher    stores the chunk in the connection and sends it
+     */
+    public <T> void translate(long key, Supplier<T> translation, Finisher<T> finisher) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(translation, WORKERS);
+        enqueue(new Task(key, future, () -> finisher.finish(future.join())));
+        future.whenComplete((result, throwable) -> getUser().getChannel().eventLoop().execute(this::drain));
+    }
+
+    /**
+     * Holds back a packet until the chunk it touches was sent, it is then transformed from this protocol on.
+     * The wrapper has to be cancelled afterwards.
+     */
+    public void holdBack(long key, PacketWrapper wrapper) throws Exception {
+        ByteBuf packet = Unpooled.buffer();
+        wrapper.passthroughAll();
+        wrapper.writeToBuffer(packet);
+
+        enqueue(new Task(key, null, () -> {
+            PacketWrapper heldBack = new PacketWrapper(Type.VAR_INT.readPrimitive(packet), packet, getUser());
+            heldBack.send(Protocol1_13To1_12_2.class, false, true);
+        }));
+    }
+
+    /**
+     * Finishes and sends every queued chunk right away, waiting for the ones still being translated.
+     * Used before packets that change the world all chunks belong to.
+     */
+    public void flush() {
+        Task task;
+        while ((task = tasks.poll()) != null) {
+            run(task);
+        }
+    }
+
+    private void enqueue(Task task) {
+        tasks.add(task);
+        pending.merge(task.key, 1, Integer::sum);
+    }
+
+    private void drain() {
+        while (!tasks.isEmpty() && tasks.peek().isReady()) {
+            run(tasks.poll());
+        }
+    }
+
+    private void run(Task task) {
+        pending.computeIfPresent(task.key, (key, count) -> count == 1 ? null : count - 1);
+
+        boolean wasReplaying = replaying;
+        replaying = true;
+        try {
+            task.action.run();
+        } catch (Exception e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Failed to finish a translated chunk", e);
+        } finally {
+            replaying = wasReplaying;
+        }
+    }
+
+    private static final class Task {
+        private final long key;
+        private final CompletableFuture<?> translation; // null for held back packets
+        private final Action action;
+
+        private Task(long key, CompletableFuture<?> translation, Action action) {
+            this.key = key;
+            this.translation = translation;
+            this.action = action;
+        }
+
+        private boolean isReady() {
+            return translation == null || translation.isDone();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Finisher<T> {
+        void finish(T result) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws Exception;
+    }
+}
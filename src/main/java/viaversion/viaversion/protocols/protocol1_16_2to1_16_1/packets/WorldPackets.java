@@ -39,10 +39,7 @@ public class WorldPackets {
                     for (int s = 0; s < 16; s++) {
                         ChunkSection section = chunk.getSections()[s];
                         if (section == null) continue;
-                        for (int i = 0; i < section.getPaletteSize(); i++) {
-                            int old = section.getPaletteEntry(i);
-                            section.setPaletteEntry(i, protocol.getMappingData().getNewBlockStateId(old));
-                        }
+                        section.remapPalette(protocol.getMappingData()::getNewBlockStateId);
                     }
                 });
             }